@@ -0,0 +1,29 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted for an operation on many keys at once.
+ * The duration of the event is the duration of the operation.
+ * Disabled by default.
+ */
+@Name("com.gmail.onishchenko.oleksii.hashmap.BulkOperation")
+@Label("Hash Table Bulk Operation")
+@Description("Operation on many keys of a hash table at once")
+@Category("Hash Table")
+@Enabled(false)
+final class BulkOperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Key Count")
+    int keyCount;
+
+    @Label("Capacity")
+    long capacity;
+}
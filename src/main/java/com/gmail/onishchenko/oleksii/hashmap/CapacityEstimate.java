@@ -0,0 +1,102 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import java.util.Objects;
+
+public final class CapacityEstimate {
+    private final int expectedSize;
+    private final int capacity;
+    private final long bytes;
+    private final double expectedSuccessfulProbes;
+    private final double expectedUnsuccessfulProbes;
+
+    CapacityEstimate(int expectedSize, int capacity, long bytes,
+                     double expectedSuccessfulProbes, double expectedUnsuccessfulProbes) {
+        this.expectedSize = expectedSize;
+        this.capacity = capacity;
+        this.bytes = bytes;
+        this.expectedSuccessfulProbes = expectedSuccessfulProbes;
+        this.expectedUnsuccessfulProbes = expectedUnsuccessfulProbes;
+    }
+
+    /**
+     * Returns the number of key-value mappings the estimate is made for.
+     *
+     * @return the expected number of mappings
+     */
+    public int getExpectedSize() {
+        return expectedSize;
+    }
+
+    /**
+     * Returns the prime capacity of the hash table.
+     *
+     * @return the capacity of the hash table
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the heap size of the hash table holding the expected number of mappings.
+     *
+     * @return the memory footprint in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the ratio of the expected number of mappings to the capacity.
+     *
+     * @return the load factor
+     */
+    public double getLoadFactor() {
+        return (double) expectedSize / capacity;
+    }
+
+    /**
+     * Returns the expected number of probes to find a key that is present
+     * in the hash table.
+     *
+     * @return the expected length of a successful probe sequence
+     */
+    public double getExpectedSuccessfulProbes() {
+        return expectedSuccessfulProbes;
+    }
+
+    /**
+     * Returns the expected number of probes to find out that a key is absent
+     * from the hash table.
+     *
+     * @return the expected length of an unsuccessful probe sequence
+     */
+    public double getExpectedUnsuccessfulProbes() {
+        return expectedUnsuccessfulProbes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CapacityEstimate that = (CapacityEstimate) o;
+        return expectedSize == that.expectedSize &&
+                capacity == that.capacity &&
+                bytes == that.bytes &&
+                Double.compare(that.expectedSuccessfulProbes, expectedSuccessfulProbes) == 0 &&
+                Double.compare(that.expectedUnsuccessfulProbes, expectedUnsuccessfulProbes) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(expectedSize, capacity, bytes, expectedSuccessfulProbes, expectedUnsuccessfulProbes);
+    }
+
+    @Override
+    public String toString() {
+        return "CapacityEstimate[expectedSize=" + expectedSize
+                + ", capacity=" + capacity
+                + ", bytes=" + bytes
+                + ", successfulProbes=" + expectedSuccessfulProbes
+                + ", unsuccessfulProbes=" + expectedUnsuccessfulProbes + "]";
+    }
+}
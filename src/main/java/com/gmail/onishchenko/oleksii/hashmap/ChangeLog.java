@@ -0,0 +1,367 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of the changes of a hash table.
+ * <p>
+ * Records are collected in a buffer and written as one batch (group commit)
+ * when the buffer is full or the log is flushed. A batch is stored as
+ * <tt>[int recordCount][records][int crc32]</tt> where every record is
+ * <tt>[byte type][int key][long value]</tt>. A batch that was not completely
+ * written before a crash fails the length or checksum check and ends the log.
+ * <p>
+ * If writing a batch fails, the log is cut back to the end of the previous batch
+ * and the records of the batch stay pending, so the next write retries them.
+ * If the log cannot be cut back, it is failed: every later operation throws
+ * an <tt>IOException</tt> and only closing is allowed.
+ */
+public class ChangeLog implements Closeable {
+    /**
+     * Tells when the written batches are forced to the storage device.
+     */
+    public enum FsyncPolicy {
+        /**
+         * Batches are forced only on {@link #sync()} and {@link #truncate()};
+         * the operating system decides when the rest reach the device.
+         */
+        NEVER,
+        /**
+         * Every batch is forced right after it is written.
+         */
+        EVERY_BATCH
+    }
+
+    /**
+     * The default number of records in a batch.
+     */
+    static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /**
+     * Type of the record that associates a value with a key.
+     */
+    static final byte PUT = 1;
+
+    /**
+     * The size of a record in bytes.
+     */
+    static final int RECORD_SIZE = Byte.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * The size of the record count and the checksum of a batch in bytes.
+     */
+    private static final int BATCH_OVERHEAD = Integer.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final int batchSize;
+
+    /**
+     * The batch being collected. The record count is filled in when the batch is written.
+     */
+    private final ByteBuffer batch;
+
+    private final CRC32 checksum = new CRC32();
+
+    private int pendingRecords;
+
+    /**
+     * The number of records in the log including the pending ones.
+     */
+    private long recordCount;
+
+    /**
+     * The error that left a torn batch at the end of the log, <tt>null</tt> if there is none.
+     */
+    private IOException failure;
+
+    private ChangeLog(FileChannel channel, int batchSize, FsyncPolicy fsyncPolicy, long recordCount) {
+        this.channel = channel;
+        this.batchSize = batchSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.recordCount = recordCount;
+        this.batch = ByteBuffer.allocateDirect(BATCH_OVERHEAD + batchSize * RECORD_SIZE);
+        resetBatch();
+    }
+
+    /**
+     * Opens the log for appending, creating the file if it does not exist.
+     * A partially written batch at the end of the file is cut off.
+     *
+     * @param file        the log file
+     * @param batchSize   the number of records written at once
+     * @param fsyncPolicy tells when the written batches are forced to the storage device
+     * @return the opened log
+     * @throws IllegalArgumentException if the batch size is not positive
+     * @throws IOException              if an I/O error occurs
+     */
+    public static ChangeLog open(Path file, int batchSize, FsyncPolicy fsyncPolicy) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Illegal batch size: " + batchSize);
+        }
+        Objects.requireNonNull(fsyncPolicy);
+        return open(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), batchSize, fsyncPolicy);
+    }
+
+    /**
+     * Opens the log on the given channel that is closed if the log cannot be opened.
+     * Package-private so that tests can pass a channel that fails.
+     */
+    static ChangeLog open(FileChannel channel, int batchSize, FsyncPolicy fsyncPolicy) throws IOException {
+        try {
+            long[] records = new long[1];
+            long validLength = read(channel, (key, value) -> records[0]++);
+            if (validLength < channel.size()) {
+                channel.truncate(validLength);
+                channel.force(false);
+            }
+            channel.position(validLength);
+            return new ChangeLog(channel, batchSize, fsyncPolicy, records[0]);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Passes the key-value mappings of all complete batches of the log
+     * to the action in the order they were appended.
+     *
+     * @param file   the log file
+     * @param action the action to be performed for each appended mapping
+     * @return the number of replayed records
+     * @throws IOException if an I/O error occurs or the log contains an unknown record
+     */
+    public static long replay(Path file, HashTable.EntryConsumer action) throws IOException {
+        Objects.requireNonNull(action);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long[] records = new long[1];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel, (key, value) -> {
+                records[0]++;
+                action.accept(key, value);
+            });
+        }
+        return records[0];
+    }
+
+    /**
+     * Appends the mapping to the current batch writing the batch if it is full.
+     * If the write fails, the mapping stays in the batch.
+     *
+     * @param key   the key of the mapping
+     * @param value the value of the mapping
+     * @throws IOException if an I/O error occurs or the log has failed
+     */
+    public void append(int key, long value) throws IOException {
+        ensureWritable();
+        if (pendingRecords == batchSize) {
+            // the previous write of the full batch failed
+            flush();
+        }
+        batch.put(PUT).putInt(key).putLong(value);
+        pendingRecords++;
+        recordCount++;
+        if (pendingRecords == batchSize) {
+            writeBatch();
+            if (fsyncPolicy == FsyncPolicy.EVERY_BATCH) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Writes the current batch even if it is not full.
+     *
+     * @throws IOException if an I/O error occurs or the log has failed
+     */
+    public void flush() throws IOException {
+        ensureWritable();
+        if (pendingRecords > 0) {
+            writeBatch();
+            if (fsyncPolicy == FsyncPolicy.EVERY_BATCH) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Writes the current batch and forces the log to the storage device.
+     *
+     * @throws IOException if an I/O error occurs or the log has failed
+     */
+    public void sync() throws IOException {
+        ensureWritable();
+        if (pendingRecords > 0) {
+            writeBatch();
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Discards all records of the log including the pending ones.
+     *
+     * @throws IOException if an I/O error occurs or the log has failed
+     */
+    public void truncate() throws IOException {
+        ensureWritable();
+        resetBatch();
+        recordCount = 0;
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(false);
+    }
+
+    /**
+     * Returns the number of records in the log including the ones not written yet.
+     *
+     * @return the number of records in the log
+     */
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Writes the current batch and closes the log. The log is forced to
+     * the storage device unless the fsync policy is <tt>NEVER</tt>.
+     * A failed log is only closed.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (failure != null) {
+                return;
+            }
+            if (pendingRecords > 0) {
+                writeBatch();
+            }
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Throws if the log has failed.
+     *
+     * @throws IOException if the log has failed
+     */
+    void ensureWritable() throws IOException {
+        if (failure != null) {
+            throw new IOException("The log has failed", failure);
+        }
+    }
+
+    /**
+     * Completes the current batch with the record count and the checksum and writes it.
+     * If the write fails, the log is cut back to where the batch started and the
+     * batch is restored, or the log is failed if it cannot be cut back.
+     */
+    private void writeBatch() throws IOException {
+        int recordsEnd = batch.position();
+        batch.putInt(0, pendingRecords);
+        ByteBuffer content = batch.duplicate();
+        ((Buffer) content).flip();
+        checksum.reset();
+        checksum.update(content);
+        batch.putInt((int) checksum.getValue());
+        ((Buffer) batch).flip();
+        long start = channel.position();
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+        } catch (IOException e) {
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+                failure = e;
+                throw e;
+            }
+            ((Buffer) batch).clear();
+            ((Buffer) batch).position(recordsEnd);
+            throw e;
+        }
+        resetBatch();
+    }
+
+    /**
+     * Empties the current batch leaving room for the record count.
+     * The casts keep the class binary compatible with Java 8 where
+     * <tt>ByteBuffer</tt> does not override these methods.
+     */
+    private void resetBatch() {
+        ((Buffer) batch).clear();
+        ((Buffer) batch).position(Integer.BYTES);
+        pendingRecords = 0;
+    }
+
+    /**
+     * Reads the complete batches from the beginning of the channel and returns
+     * the length of the valid part of the log.
+     */
+    private static long read(FileChannel channel, HashTable.EntryConsumer action) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer count = ByteBuffer.allocate(Integer.BYTES);
+        ByteBuffer content = ByteBuffer.allocate(0);
+        CRC32 crc = new CRC32();
+        while (size - position >= BATCH_OVERHEAD) {
+            ((Buffer) count).clear();
+            readFully(channel, count, position);
+            int records = count.getInt(0);
+            long batchLength = BATCH_OVERHEAD + (long) records * RECORD_SIZE;
+            if (records <= 0 || batchLength > size - position || batchLength > Integer.MAX_VALUE) {
+                break;
+            }
+            if (content.capacity() < batchLength) {
+                content = ByteBuffer.allocate((int) batchLength);
+            }
+            ((Buffer) content).clear();
+            ((Buffer) content).limit((int) batchLength);
+            readFully(channel, content, position);
+            crc.reset();
+            crc.update(content.array(), 0, (int) batchLength - Integer.BYTES);
+            if ((int) crc.getValue() != content.getInt((int) batchLength - Integer.BYTES)) {
+                break;
+            }
+            ((Buffer) content).position(Integer.BYTES);
+            for (int i = 0; i < records; i++) {
+                byte type = content.get();
+                if (type != PUT) {
+                    throw new IOException("Unknown record type " + type + " at " + position);
+                }
+                action.accept(content.getInt(), content.getLong());
+            }
+            position += batchLength;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of the log");
+            }
+        }
+    }
+}
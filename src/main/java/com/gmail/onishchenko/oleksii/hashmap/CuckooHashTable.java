@@ -0,0 +1,348 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Hash table with bucketized cuckoo hashing.
+ * <p>
+ * Every key may only be stored in one of the 4 slots of the bucket chosen by
+ * the first hash function or of the bucket chosen by the second one. A key
+ * that finds both buckets full evicts a random key, which moves to its other
+ * bucket, and so on. When the chain of evictions gets too long the homeless
+ * key is put into a small stash. A lookup therefore probes at most two buckets
+ * and the stash, which is only searched while it is not empty.
+ */
+public class CuckooHashTable implements HashTable {
+    /**
+     * The number of slots in a bucket.
+     */
+    static final int SLOTS_PER_BUCKET = 4;
+
+    /**
+     * The default capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The maximum capacity - MUST be a power of two.
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The number of keys that do not fit into the buckets.
+     */
+    static final int STASH_CAPACITY = 8;
+
+    /**
+     * The maximum number of evictions before a key is put into the stash.
+     */
+    static final int MAX_EVICTIONS = 500;
+
+    /**
+     * The number of key-value mappings contained in this hash table.
+     */
+    private int size;
+
+    /**
+     * The keys. Slot <tt>i</tt> of bucket <tt>b</tt> is at index <tt>b * SLOTS_PER_BUCKET + i</tt>.
+     */
+    private final int[] keys;
+
+    private final long[] values;
+
+    /**
+     * Tells which slots are occupied, as every <tt>int</tt> is a valid key.
+     */
+    private final boolean[] occupied;
+
+    private final int bucketMask;
+
+    private final int[] stashKeys = new int[STASH_CAPACITY];
+
+    private final long[] stashValues = new long[STASH_CAPACITY];
+
+    private int stashSize;
+
+    /**
+     * The state of the xorshift generator that chooses the slot to evict.
+     */
+    private int randomState = 0x2545F491;
+
+    /**
+     * Constructs an empty <tt>CuckooHashTable</tt> with the capacity that is
+     * a power of two greater than or equal to the desiredCapacity and at least
+     * one bucket. A few more keys may be kept in the stash.
+     *
+     * @param desiredCapacity the desired capacity
+     * @throws IllegalArgumentException if the desired capacity is not positive
+     *                                  or greater than <tt>MAX_CAPACITY</tt>.
+     */
+    public CuckooHashTable(int desiredCapacity) {
+        if (desiredCapacity <= 0 || desiredCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Illegal desired capacity: " + desiredCapacity);
+        }
+        int buckets = Integer.highestOneBit((desiredCapacity + SLOTS_PER_BUCKET - 1) / SLOTS_PER_BUCKET);
+        if (buckets * SLOTS_PER_BUCKET < desiredCapacity) {
+            buckets <<= 1;
+        }
+        bucketMask = buckets - 1;
+        keys = new int[buckets * SLOTS_PER_BUCKET];
+        values = new long[buckets * SLOTS_PER_BUCKET];
+        occupied = new boolean[buckets * SLOTS_PER_BUCKET];
+    }
+
+    /**
+     * Constructs an empty <tt>CuckooHashTable</tt> with the default
+     * capacity (16).
+     */
+    public CuckooHashTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this hash table.
+     *
+     * @return the number of key-value mappings in this hash table
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this hash table contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this hash table contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of slots in the buckets, not counting the stash.
+     *
+     * @return the hash table capacity
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the number of keys kept in the stash.
+     *
+     * @return the number of keys kept in the stash
+     */
+    int stashSize() {
+        return stashSize;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this hash table contains a mapping for the
+     * specified key.
+     *
+     * @param key The key whose presence in this hash table is to be tested
+     * @return <tt>true</tt> if this hash table contains a mapping for the specified
+     * key.
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return slotOf(key) >= 0 || stashIndexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key The key whose presence in this hash table
+     * @throws IllegalArgumentException if this hash table contains
+     *                                  no mapping for the key.
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            return values[slot];
+        }
+        int index = stashIndexOf(key);
+        if (index < 0) {
+            throw new IllegalArgumentException("This hash table contains no mapping for the key = " + key);
+        }
+        return stashValues[index];
+    }
+
+    /**
+     * Associates the specified value with the specified key in this hash table.
+     * If the hash table previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return <tt>true</tt> if the value was associated with the key in
+     * this hash table; <tt>false</tt> if both buckets of the key are full
+     * and so is the stash
+     */
+    @Override
+    public boolean put(int key, long value) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            values[slot] = value;
+            return true;
+        }
+        int index = stashIndexOf(key);
+        if (index >= 0) {
+            stashValues[index] = value;
+            return true;
+        }
+
+        int bucket = firstBucket(key);
+        if (insertIntoBucket(bucket, key, value) || insertIntoBucket(secondBucket(key), key, value)) {
+            size++;
+            return true;
+        }
+        if (stashSize == STASH_CAPACITY) {
+            return false;
+        }
+
+        for (int eviction = 0; eviction < MAX_EVICTIONS; eviction++) {
+            int victim = bucket * SLOTS_PER_BUCKET + nextRandom() % SLOTS_PER_BUCKET;
+            int victimKey = keys[victim];
+            long victimValue = values[victim];
+            keys[victim] = key;
+            values[victim] = value;
+            key = victimKey;
+            value = victimValue;
+
+            int first = firstBucket(key);
+            bucket = bucket == first ? secondBucket(key) : first;
+            if (insertIntoBucket(bucket, key, value)) {
+                size++;
+                return true;
+            }
+        }
+        stashKeys[stashSize] = key;
+        stashValues[stashSize] = value;
+        stashSize++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Performs the given action for each key-value mapping in this hash table
+     * in the order of the slots followed by the stash.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the action is null
+     */
+    @Override
+    public void forEach(EntryConsumer action) {
+        Objects.requireNonNull(action);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (occupied[slot]) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+        for (int i = 0; i < stashSize; i++) {
+            action.accept(stashKeys[i], stashValues[i]);
+        }
+    }
+
+    /**
+     * Returns a string representation of the contents of the specified hash table.
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",", "CuckooHashTable[", "]");
+        forEach((key, value) -> joiner.add(key + "=" + value));
+        return joiner.toString();
+    }
+
+    /**
+     * First hash function: the bucket chosen by the MurmurHash3 finalizer of the key.
+     */
+    private int firstBucket(int key) {
+        return mix(key) & bucketMask;
+    }
+
+    /**
+     * Second hash function: the bucket chosen by the MurmurHash3 finalizer
+     * of the key combined with a different seed.
+     */
+    private int secondBucket(int key) {
+        return mix(key ^ 0x5BD1E995) & bucketMask;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Returns the slot of the given key in one of its buckets or <tt>-1</tt>
+     * if the key is not in the buckets.
+     */
+    private int slotOf(int key) {
+        int slot = slotInBucket(firstBucket(key), key);
+        if (slot >= 0) {
+            return slot;
+        }
+        return slotInBucket(secondBucket(key), key);
+    }
+
+    private int slotInBucket(int bucket, int key) {
+        int start = bucket * SLOTS_PER_BUCKET;
+        for (int slot = start; slot < start + SLOTS_PER_BUCKET; slot++) {
+            if (occupied[slot] && keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the given key in the stash or <tt>-1</tt>
+     * if the key is not in the stash.
+     */
+    private int stashIndexOf(int key) {
+        for (int i = 0; i < stashSize; i++) {
+            if (stashKeys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Puts the mapping into a free slot of the bucket. Returns <tt>false</tt>
+     * if the bucket is full.
+     */
+    private boolean insertIntoBucket(int bucket, int key, long value) {
+        int start = bucket * SLOTS_PER_BUCKET;
+        for (int slot = start; slot < start + SLOTS_PER_BUCKET; slot++) {
+            if (!occupied[slot]) {
+                occupied[slot] = true;
+                keys[slot] = key;
+                values[slot] = value;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the next non-negative number of the xorshift generator.
+     */
+    private int nextRandom() {
+        int x = randomState;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        randomState = x;
+        return x >>> 1;
+    }
+}
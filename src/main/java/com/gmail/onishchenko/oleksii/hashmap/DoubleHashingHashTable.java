@@ -2,6 +2,8 @@ package com.gmail.onishchenko.oleksii.hashmap;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.joining;
 
@@ -61,6 +63,37 @@ public class DoubleHashingHashTable implements HashTable {
      */
     static final int MAX_CAPACITY = 2147483629; //max prime number that is smaller than Integer.MAX_VALUE
 
+    /**
+     * The number of keys below which a bulk build inserts the keys
+     * one by one in the calling thread.
+     */
+    static final int PARALLEL_BUILD_THRESHOLD = 1 << 13;
+
+    /**
+     * The number of probes above which a <tt>LongProbeEvent</tt> is emitted. Kept here
+     * so that the Flight Recorder classes are only loaded for a long probe sequence.
+     */
+    static final int LONG_PROBE_THRESHOLD =
+            Integer.getInteger("com.gmail.onishchenko.oleksii.hashmap.longProbeThreshold", 32);
+
+    /**
+     * The maximum number of parallel rounds of a bulk build. The keys
+     * still pending after them are inserted one by one.
+     */
+    static final int MAX_BUILD_ROUNDS = 16;
+
+    /**
+     * The binary logarithm of the number of consecutive positions
+     * that belong to the same partition of a bulk build.
+     */
+    static final int BUILD_BLOCK_SHIFT = 10;
+
+    /**
+     * Results of a probe limited to a range that are not positions.
+     */
+    private static final int INSERTED = -1;
+    private static final int UPDATED = -2;
+
     /**
      * The number of key-value mappings contained in this hash table.
      */
@@ -92,12 +125,7 @@ public class DoubleHashingHashTable implements HashTable {
         if (desiredCapacity <= 0 || desiredCapacity > MAX_CAPACITY) {
             throw new IllegalArgumentException("Illegal desired capacity: " + desiredCapacity);
         }
-        int capacity;
-        if (isPrime(desiredCapacity)) {
-            capacity = desiredCapacity;
-        } else {
-            capacity = nextPrime(desiredCapacity);
-        }
+        int capacity = primeCapacity(desiredCapacity);
         table = new Entry[capacity];
         if (capacity < 3) {
             primeForHash = 1;
@@ -114,6 +142,77 @@ public class DoubleHashingHashTable implements HashTable {
         this(DEFAULT_CAPACITY);
     }
 
+    /**
+     * Constructs a <tt>DoubleHashingHashTable</tt> that contains the values associated
+     * with the keys at the same indices. The capacity is chosen once from the number
+     * of keys and the load policy, so the table is never rebuilt during the load.
+     * <p>
+     * With enough keys and processors the positions are split into partitions
+     * that are filled in parallel, each by its own thread. A key whose probe
+     * sequence leaves its partition resumes from that position in the next
+     * parallel round; only the keys still pending after <tt>MAX_BUILD_ROUNDS</tt>
+     * rounds are inserted in the calling thread. The parallel build needs four
+     * temporary <tt>int</tt> arrays of the number of keys, 16 bytes per key on top
+     * of the table. If a key occurs several times the last value wins.
+     *
+     * @param keys       keys with which the values are to be associated
+     * @param values     values to be associated with the keys
+     * @param loadPolicy the policy used to choose the capacity
+     * @return a new hash table that contains all the mappings
+     * @throws IllegalArgumentException if the arrays have different lengths or
+     *                                  the needed capacity is greater than <tt>MAX_CAPACITY</tt>
+     * @throws NullPointerException     if the load policy is null
+     */
+    public static DoubleHashingHashTable from(int[] keys, long[] values, LoadPolicy loadPolicy) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values have different lengths: "
+                    + keys.length + " and " + values.length);
+        }
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        DoubleHashingHashTable result = new DoubleHashingHashTable(loadPolicy.desiredCapacity(keys.length));
+        if (keys.length < PARALLEL_BUILD_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            for (int i = 0; i < keys.length; i++) {
+                result.put(keys[i], values[i]);
+            }
+        } else {
+            result.putAllPartitioned(keys, values);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "from";
+            event.keyCount = keys.length;
+            event.capacity = result.capacity();
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Estimates a <tt>DoubleHashingHashTable</tt> that holds the expected number
+     * of mappings without exceeding the maximum load factor of the policy.
+     * The probe lengths are the expected values for uniform hashing
+     * which double hashing closely approximates.
+     *
+     * @param expectedSize the expected number of mappings
+     * @param loadPolicy   the policy used to choose the capacity
+     * @return the chosen capacity, memory footprint and expected probe lengths
+     * @throws IllegalArgumentException if the expected size is negative or
+     *                                  the needed capacity is greater than <tt>MAX_CAPACITY</tt>
+     * @throws NullPointerException     if the load policy is null
+     * @see #from(int[], long[], LoadPolicy)
+     * @see #memoryFootprintBytes()
+     */
+    public static CapacityEstimate estimate(int expectedSize, LoadPolicy loadPolicy) {
+        int capacity = primeCapacity(loadPolicy.desiredCapacity(expectedSize));
+        double successfulProbes = expectedSize == 0 ? 0
+                : (capacity + 1.0) / expectedSize
+                * (harmonic(capacity + 1) - harmonic(capacity - expectedSize + 1));
+        double unsuccessfulProbes = (capacity + 1.0) / (capacity - expectedSize + 1);
+        return new CapacityEstimate(expectedSize, capacity, memoryFootprintBytes(capacity, expectedSize),
+                successfulProbes, unsuccessfulProbes);
+    }
+
     /**
      * Returns the number of key-value mappings in this hash table.
      *
@@ -152,6 +251,16 @@ public class DoubleHashingHashTable implements HashTable {
         return table.length;
     }
 
+    /**
+     * Returns the heap size of this hash table: the table object itself,
+     * the array of entries and every entry.
+     *
+     * @return the memory footprint in bytes
+     */
+    public long memoryFootprintBytes() {
+        return memoryFootprintBytes(table.length, size);
+    }
+
     /**
      * Returns <tt>true</tt> if this hash table contains a mapping for the
      * specified key.
@@ -214,6 +323,23 @@ public class DoubleHashingHashTable implements HashTable {
         return true;
     }
 
+    /**
+     * Performs the given action for each key-value mapping in this hash table
+     * in the order of the positions in the table.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the action is null
+     */
+    @Override
+    public void forEach(EntryConsumer action) {
+        Objects.requireNonNull(action);
+        for (Entry entry : table) {
+            if (entry != null) {
+                action.accept(entry.key, entry.value);
+            }
+        }
+    }
+
     /**
      * Returns a string representation of the contents of the specified hash table.
      */
@@ -225,6 +351,140 @@ public class DoubleHashingHashTable implements HashTable {
                 .collect(joining(",", "DoubleHashingHashTable[", "]"));
     }
 
+    /**
+     * Inserts the keys partition by partition in parallel. The positions are split
+     * into blocks of <tt>2^BUILD_BLOCK_SHIFT</tt> that are dealt to the partitions
+     * in turn, as the first probe steps of many keys end up close to each other.
+     * A round orders the pending key indices by the partition of their current
+     * probe position keeping their relative order, so all occurrences of a key
+     * are always handled by one thread in index order. A thread only touches the
+     * positions of its own partition; a key whose probe sequence leaves the
+     * partition stays pending and resumes from that position in the next round.
+     * Both the ordering and the probing of a round run in parallel: every chunk
+     * of the pending keys counts and then scatters its keys per partition.
+     * The keys still pending after <tt>MAX_BUILD_ROUNDS</tt> rounds
+     * are inserted by the calling thread.
+     * <p>
+     * Package-private so that tests can exercise it regardless of the
+     * number of available processors.
+     */
+    void putAllPartitioned(int[] keys, long[] values) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int blocks = ((table.length - 1) >>> BUILD_BLOCK_SHIFT) + 1;
+        int partitions = Math.min(blocks, parallelism * 4);
+
+        int[] pending = new int[keys.length];
+        int[] pendingPositions = new int[keys.length];
+        Arrays.parallelSetAll(pending, i -> i);
+        Arrays.parallelSetAll(pendingPositions, i -> firstHash(keys[i]));
+        int[] order = new int[keys.length];
+        int[] orderPositions = new int[keys.length];
+        int[] starts = new int[partitions + 1];
+        int[] deferred = new int[partitions];
+        int count = keys.length;
+
+        for (int round = 0; round < MAX_BUILD_ROUNDS && count > 0; round++) {
+            int chunks = Math.min(count, parallelism * 4);
+            int chunkLength = (count + chunks - 1) / chunks;
+            int pendingCount = count;
+
+            // offsets[c][p] is where chunk c puts its first key of partition p
+            int[][] offsets = new int[chunks][partitions];
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] chunkCounts = offsets[c];
+                for (int j = c * chunkLength, end = Math.min(j + chunkLength, pendingCount); j < end; j++) {
+                    chunkCounts[partitionOf(pendingPositions[j], partitions)]++;
+                }
+            });
+            int offset = 0;
+            for (int p = 0; p < partitions; p++) {
+                starts[p] = offset;
+                for (int c = 0; c < chunks; c++) {
+                    int chunkCount = offsets[c][p];
+                    offsets[c][p] = offset;
+                    offset += chunkCount;
+                }
+            }
+            starts[partitions] = count;
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] next = offsets[c];
+                for (int j = c * chunkLength, end = Math.min(j + chunkLength, pendingCount); j < end; j++) {
+                    int k = next[partitionOf(pendingPositions[j], partitions)]++;
+                    order[k] = pending[j];
+                    orderPositions[k] = pendingPositions[j];
+                }
+            });
+
+            size += IntStream.range(0, partitions)
+                    .parallel()
+                    .map(p -> {
+                        int inserted = 0;
+                        int stillPending = starts[p];
+                        for (int k = starts[p]; k < starts[p + 1]; k++) {
+                            int i = order[k];
+                            int result = putInPartition(keys[i], values[i], orderPositions[k], p, partitions);
+                            if (result == INSERTED) {
+                                inserted++;
+                            } else if (result != UPDATED) {
+                                order[stillPending] = i;
+                                orderPositions[stillPending] = result;
+                                stillPending++;
+                            }
+                        }
+                        deferred[p] = stillPending - starts[p];
+                        return inserted;
+                    })
+                    .sum();
+
+            count = 0;
+            for (int p = 0; p < partitions; p++) {
+                System.arraycopy(order, starts[p], pending, count, deferred[p]);
+                System.arraycopy(orderPositions, starts[p], pendingPositions, count, deferred[p]);
+                count += deferred[p];
+            }
+            if (count == pendingCount) {
+                break;
+            }
+        }
+
+        for (int j = 0; j < count; j++) {
+            put(keys[pending[j]], values[pending[j]]);
+        }
+    }
+
+    /**
+     * Associates the value with the key probing from the given position of its
+     * probe sequence but only the positions of the partition that contains
+     * the given position. Returns <tt>INSERTED</tt> if a new entry was added,
+     * <tt>UPDATED</tt> if the value of the existing entry was replaced and
+     * otherwise the position where the probe sequence left the partition
+     * or came back to the given position.
+     */
+    private int putInPartition(int key, long value, int position, int partition, int partitions) {
+        int currentPos = position;
+        int probeValue = secondHash(key);
+        do {
+            Entry entry = table[currentPos];
+            if (entry == null) {
+                table[currentPos] = new Entry(key, value);
+                return INSERTED;
+            }
+            if (entry.key == key) {
+                entry.value = value;
+                return UPDATED;
+            }
+            currentPos = (currentPos + probeValue) % table.length; // i-th probe
+        } while (partitionOf(currentPos, partitions) == partition && currentPos != position);
+        return currentPos;
+    }
+
+    /**
+     * Returns the partition of a bulk build the position belongs to.
+     */
+    private static int partitionOf(int position, int partitions) {
+        return (position >>> BUILD_BLOCK_SHIFT) % partitions;
+    }
+
     /**
      * Hash function that is used to get a primary position to probe
      */
@@ -251,6 +511,8 @@ public class DoubleHashingHashTable implements HashTable {
     /**
      * Finds the position of the element with the given key. Returns
      * a prime position if the given key is not present in the hash table.
+     * A probe sequence longer than <tt>LONG_PROBE_THRESHOLD</tt>
+     * is reported to Flight Recorder.
      */
     private int findPosition(int key) {
         int startPos = firstHash(key);
@@ -260,13 +522,18 @@ public class DoubleHashingHashTable implements HashTable {
         }
         int probeValue = secondHash(key);
         int currentPos = (startPos + probeValue) % table.length;  //1-th probe
+        int probeCount = 2;
 
         while (table[currentPos] != null
                 && table[currentPos].key != key
                 && currentPos != startPos) {
             currentPos = (currentPos + probeValue) % table.length; // i-th probe
+            probeCount++;
         }
 
+        if (probeCount > LONG_PROBE_THRESHOLD) {
+            LongProbeEvent.emit(key, probeCount, table.length);
+        }
         return currentPos;
     }
 
@@ -287,13 +554,56 @@ public class DoubleHashingHashTable implements HashTable {
         return -1;
     }
 
+    /**
+     * Returns the heap size of a hash table with the given capacity and size.
+     */
+    private static long memoryFootprintBytes(int capacity, int size) {
+        return Sizes.INSTANCE_SIZE + MemoryLayout.referenceArraySize(capacity) + Sizes.ENTRY_SIZE * size;
+    }
+
+    /**
+     * The shallow sizes of a hash table and of an entry in bytes. Kept in a holder
+     * class so that only the memory footprint methods initialize <tt>MemoryLayout</tt>,
+     * which reads the VM options through the management API.
+     */
+    private static final class Sizes {
+        static final long INSTANCE_SIZE = MemoryLayout.instanceSize(DoubleHashingHashTable.class);
+        static final long ENTRY_SIZE = MemoryLayout.instanceSize(Entry.class);
+    }
+
+    /**
+     * Returns the n-th harmonic number.
+     */
+    private static double harmonic(int n) {
+        if (n < 64) {
+            double sum = 0;
+            for (int i = 1; i <= n; i++) {
+                sum += 1.0 / i;
+            }
+            return sum;
+        }
+        double euler = 0.5772156649015329;
+        return Math.log(n) + euler + 1.0 / (2.0 * n) - 1.0 / (12.0 * n * n);
+    }
+
+    /**
+     * Returns the capacity that is chosen for the desired capacity:
+     * the desired capacity if it is prime or the next prime number otherwise.
+     */
+    static int primeCapacity(int desiredCapacity) {
+        if (isPrime(desiredCapacity)) {
+            return desiredCapacity;
+        }
+        return nextPrime(desiredCapacity);
+    }
+
     /**
      * Primality test: tells if the argument is a prime number or not.
      *
      * @param n number to test
      * @return <tt>true</tt> if n is prime. (All numbers < 2 return false).
      */
-    boolean isPrime(int n) {
+    static boolean isPrime(int n) {
         if (n == 2) {
             return true;
         }
@@ -317,7 +627,7 @@ public class DoubleHashingHashTable implements HashTable {
      * @throws IllegalArgumentException if n < 0 or not found a prime
      *                                  number in the range (n; Integer.MAX_VALUE]
      */
-    int nextPrime(int n) {
+    static int nextPrime(int n) {
         if (n < 0) {
             throw new IllegalArgumentException("Number should be >=0");
         }
@@ -339,7 +649,7 @@ public class DoubleHashingHashTable implements HashTable {
      * @return the biggest prime number smaller than n.
      * @throws IllegalArgumentException if n < 3
      */
-    int prevPrime(int n) {
+    static int prevPrime(int n) {
         if (n < 3) {
             throw new IllegalArgumentException("Illegal value n:" + n);
         }
@@ -0,0 +1,349 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Hash table whose changes survive a crash of the process.
+ * <p>
+ * Every successful <tt>put</tt> is appended to a {@link ChangeLog}. A checkpoint
+ * writes a snapshot of all mappings and truncates the log; it is taken on
+ * {@link #checkpoint()}, or on {@link #checkpointIfNeeded()} once the log holds
+ * the given number of records. A checkpoint copies every mapping, so it is never
+ * taken inside <tt>put</tt>; the caller decides when to pay for it. On opening,
+ * the snapshot is loaded and the log is replayed on top of it. The log is forced
+ * before a snapshot is written, so every logged record is already included in
+ * the snapshot and the last logged value of every key is the one in the snapshot.
+ * Replaying a log whose truncation was interrupted is therefore harmless.
+ * <p>
+ * Only the records of written batches survive a crash, and only the forced ones
+ * survive a crash of the operating system; see {@link ChangeLog.FsyncPolicy}.
+ */
+public class DurableHashTable implements HashTable, Closeable {
+    /**
+     * The default number of log records after which {@link #checkpointIfNeeded()}
+     * takes a checkpoint. The checkpoint writes every mapping, so the call that
+     * takes it lasts time proportional to the size of the hash table.
+     */
+    static final long DEFAULT_CHECKPOINT_THRESHOLD = 1 << 20;
+
+    /**
+     * The first bytes of a snapshot file.
+     */
+    private static final int SNAPSHOT_MAGIC = 0x48545348;
+
+    private final HashTable delegate;
+    private final ChangeLog log;
+    private final Path snapshotFile;
+
+    /**
+     * The number of log records after which {@link #checkpointIfNeeded()} takes
+     * a checkpoint, <tt>0</tt> to disable.
+     */
+    private final long checkpointThreshold;
+
+    private DurableHashTable(HashTable delegate, ChangeLog log, Path snapshotFile, long checkpointThreshold) {
+        this.delegate = delegate;
+        this.log = log;
+        this.snapshotFile = snapshotFile;
+        this.checkpointThreshold = checkpointThreshold;
+    }
+
+    /**
+     * Recovers the mappings from the snapshot and the log into the given empty
+     * hash table and opens the log for appending. Missing files are created.
+     *
+     * @param delegate            the empty hash table that keeps the mappings in memory
+     * @param snapshotFile        the file of the last snapshot
+     * @param logFile             the file of the change log
+     * @param batchSize           the number of log records written at once
+     * @param fsyncPolicy         tells when the log is forced to the storage device
+     * @param checkpointThreshold the number of log records after which
+     *                            {@link #checkpointIfNeeded()} takes a checkpoint,
+     *                            <tt>0</tt> to take checkpoints only on {@link #checkpoint()}
+     * @return the recovered hash table
+     * @throws IllegalArgumentException if the hash table is not empty, the batch size is
+     *                                  not positive, the checkpoint threshold is negative
+     *                                  or a recovered mapping does not fit into the hash table
+     * @throws IOException              if an I/O error occurs or the snapshot is corrupted
+     */
+    public static DurableHashTable open(HashTable delegate, Path snapshotFile, Path logFile,
+                                        int batchSize, ChangeLog.FsyncPolicy fsyncPolicy,
+                                        long checkpointThreshold) throws IOException {
+        if (!delegate.isEmpty()) {
+            throw new IllegalArgumentException("The hash table is not empty");
+        }
+        if (checkpointThreshold < 0) {
+            throw new IllegalArgumentException("Illegal checkpoint threshold: " + checkpointThreshold);
+        }
+        Objects.requireNonNull(snapshotFile);
+        HashTable.EntryConsumer restore = (key, value) -> {
+            if (!delegate.put(key, value)) {
+                throw new IllegalArgumentException("The hash table has no space for the key = " + key);
+            }
+        };
+        if (Files.exists(snapshotFile)) {
+            // the checksum is verified before anything is put into the hash table
+            readSnapshot(snapshotFile, (key, value) -> {
+            });
+            readSnapshot(snapshotFile, restore);
+        }
+        ChangeLog.replay(logFile, restore);
+        ChangeLog log = ChangeLog.open(logFile, batchSize, fsyncPolicy);
+        return new DurableHashTable(delegate, log, snapshotFile, checkpointThreshold);
+    }
+
+    /**
+     * Recovers the mappings into the given empty hash table using the default batch size (1024)
+     * and checkpoint threshold (2^20 records).
+     *
+     * @param delegate     the empty hash table that keeps the mappings in memory
+     * @param snapshotFile the file of the last snapshot
+     * @param logFile      the file of the change log
+     * @param fsyncPolicy  tells when the log is forced to the storage device
+     * @return the recovered hash table
+     * @throws IllegalArgumentException if the hash table is not empty or
+     *                                  a recovered mapping does not fit into the hash table
+     * @throws IOException              if an I/O error occurs or the snapshot is corrupted
+     * @see #open(HashTable, Path, Path, int, ChangeLog.FsyncPolicy, long)
+     */
+    public static DurableHashTable open(HashTable delegate, Path snapshotFile, Path logFile,
+                                        ChangeLog.FsyncPolicy fsyncPolicy) throws IOException {
+        return open(delegate, snapshotFile, logFile, ChangeLog.DEFAULT_BATCH_SIZE, fsyncPolicy,
+                DEFAULT_CHECKPOINT_THRESHOLD);
+    }
+
+    /**
+     * Returns <tt>true</tt> if this hash table contains a mapping for the
+     * specified key.
+     *
+     * @param key The key whose presence in this hash table is to be tested
+     * @return <tt>true</tt> if this hash table contains a mapping for the specified
+     * key.
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return delegate.containsKey(key);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this hash table
+     * and appends the change to the log.
+     * <p>
+     * If the batch holding the change cannot be written, the change is kept
+     * both in memory and in the pending batch, which the next write retries.
+     * If the log has failed, the hash table is not changed. A change made by
+     * the <tt>put</tt> that failed the log is only in memory; reopen the hash
+     * table to get back to the logged state.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return <tt>true</tt> if the value was associated with the key in
+     * this hash table
+     * @throws UncheckedIOException if the log cannot be written or has failed
+     */
+    @Override
+    public boolean put(int key, long value) {
+        try {
+            log.ensureWritable();
+            if (!delegate.put(key, value)) {
+                return false;
+            }
+            log.append(key, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key The key whose presence in this hash table
+     * @throws IllegalArgumentException if this hash table contains
+     *                                  no mapping for the key.
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        return delegate.get(key);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this hash table.
+     *
+     * @return the number of key-value mappings in this hash table
+     */
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    /**
+     * Returns <tt>true</tt> if this hash table contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this hash table contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    /**
+     * Performs the given action for each key-value mapping in this hash table.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the action is null
+     */
+    @Override
+    public void forEach(EntryConsumer action) {
+        delegate.forEach(action);
+    }
+
+    /**
+     * Writes the pending log records and forces the log to the storage device.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void sync() throws IOException {
+        log.sync();
+    }
+
+    /**
+     * Forces the log, writes a snapshot of all mappings and truncates the log.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void checkpoint() throws IOException {
+        writeSnapshot();
+        log.truncate();
+    }
+
+    /**
+     * Takes a checkpoint if the log holds at least the checkpoint threshold of records.
+     * Meant to be called by the owner of the hash table outside of latency-sensitive
+     * paths, e.g. periodically or after a batch of puts.
+     *
+     * @return <tt>true</tt> if a checkpoint was taken
+     * @throws IOException if an I/O error occurs
+     * @see #checkpoint()
+     */
+    public boolean checkpointIfNeeded() throws IOException {
+        if (checkpointThreshold == 0 || log.recordCount() < checkpointThreshold) {
+            return false;
+        }
+        checkpoint();
+        return true;
+    }
+
+    /**
+     * Forces the log and writes a snapshot of all mappings: everything a checkpoint
+     * does before the log is truncated. The snapshot is written to a temporary
+     * file, forced to the storage device and moved over the previous snapshot,
+     * so a crash leaves either the old or the new one. The directory is forced
+     * as well, so the rename cannot be lost once the log is truncated.
+     */
+    void writeSnapshot() throws IOException {
+        log.sync();
+        Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            writeSnapshot(temporaryFile);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel directory = FileChannel.open(snapshotFile.toAbsolutePath().getParent(),
+                StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+    }
+
+    /**
+     * Writes all mappings with their number and checksum to the file and forces it.
+     */
+    private void writeSnapshot(Path file) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(stream), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            long[] size = new long[1];
+            delegate.forEach((key, value) -> size[0]++);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(size[0]);
+            try {
+                delegate.forEach((key, value) -> {
+                    try {
+                        out.writeInt(key);
+                        out.writeLong(value);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            stream.getFD().sync();
+        }
+    }
+
+    /**
+     * Writes the pending log records and closes the log.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /**
+     * Returns a string representation of the contents of the wrapped hash table.
+     */
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    /**
+     * Passes all mappings of the snapshot to the action checking the checksum.
+     */
+    private static void readSnapshot(Path snapshotFile, HashTable.EntryConsumer action) throws IOException {
+        try (InputStream file = Files.newInputStream(snapshotFile)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a snapshot: " + snapshotFile);
+            }
+            long size = in.readLong();
+            for (long i = 0; i < size; i++) {
+                action.accept(in.readInt(), in.readLong());
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Corrupted snapshot: " + snapshotFile);
+            }
+        }
+    }
+}
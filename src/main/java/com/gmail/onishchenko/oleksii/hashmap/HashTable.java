@@ -1,7 +1,30 @@
 package com.gmail.onishchenko.oleksii.hashmap;
 
+/**
+ * Hash table that maps <tt>int</tt> keys to <tt>long</tt> values.
+ * <p>
+ * The implementations report resizes, long probe sequences and bulk operations
+ * as Flight Recorder events, so they need a Java runtime with the <tt>jdk.jfr</tt>
+ * module (OpenJDK 8u262+ or 11+). The Flight Recorder classes are only loaded by
+ * bulk operations, resizes and probe sequences longer than the long probe threshold;
+ * on older runtimes these throw <tt>NoClassDefFoundError</tt>.
+ */
 public interface HashTable {
 
+    /**
+     * Action performed on each key-value mapping of a hash table.
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+        /**
+         * Performs this action on the given key-value mapping.
+         *
+         * @param key   the key of the mapping
+         * @param value the value of the mapping
+         */
+        void accept(int key, long value);
+    }
+
     /**
      * Returns <tt>true</tt> if this hash table contains a mapping for the
      * specified key.
@@ -48,4 +71,13 @@ public interface HashTable {
      * @return <tt>true</tt> if this hash table contains no key-value mappings
      */
     boolean isEmpty();
-}
\ No newline at end of file
+
+    /**
+     * Performs the given action for each key-value mapping in this hash table.
+     * The order of the mappings is not specified.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the action is null
+     */
+    void forEach(EntryConsumer action);
+}
@@ -0,0 +1,87 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+public final class LoadPolicy {
+    /**
+     * The default policy with the maximum load factor 0.75.
+     */
+    public static final LoadPolicy DEFAULT = new LoadPolicy(0.75f);
+
+    /**
+     * The maximum ratio of the number of mappings to the capacity.
+     */
+    private final float maxLoadFactor;
+
+    /**
+     * Constructs a <tt>LoadPolicy</tt> with the given maximum load factor.
+     *
+     * @param maxLoadFactor the maximum ratio of the number of mappings
+     *                      to the capacity of a hash table
+     * @throws IllegalArgumentException if the load factor is not in the range (0; 1]
+     */
+    public LoadPolicy(float maxLoadFactor) {
+        if (!(maxLoadFactor > 0 && maxLoadFactor <= 1)) {
+            throw new IllegalArgumentException("Illegal load factor: " + maxLoadFactor);
+        }
+        this.maxLoadFactor = maxLoadFactor;
+    }
+
+    /**
+     * Returns the maximum ratio of the number of mappings to the capacity.
+     *
+     * @return the maximum load factor
+     */
+    public float getMaxLoadFactor() {
+        return maxLoadFactor;
+    }
+
+    /**
+     * Returns the smallest capacity that holds the given number of mappings
+     * without exceeding the maximum load factor.
+     *
+     * @param expectedSize the expected number of mappings
+     * @return the desired capacity of a hash table
+     * @throws IllegalArgumentException if the expected size is negative or the desired
+     *                                  capacity is greater than <tt>MAX_CAPACITY</tt>
+     */
+    public int desiredCapacity(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        double capacity = Math.ceil(expectedSize / (double) maxLoadFactor);
+        if (capacity > DoubleHashingHashTable.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size " + expectedSize
+                    + " needs a capacity greater than MAX_CAPACITY");
+        }
+        return Math.max(1, (int) capacity);
+    }
+
+    /**
+     * Returns <tt>true</tt> if the given number of mappings exceeds
+     * the maximum load factor of a hash table with the given capacity.
+     *
+     * @param size     the number of mappings
+     * @param capacity the capacity of a hash table
+     * @return <tt>true</tt> if the maximum load factor is exceeded
+     */
+    public boolean isExceeded(int size, int capacity) {
+        return size > (double) capacity * maxLoadFactor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LoadPolicy that = (LoadPolicy) o;
+        return Float.compare(that.maxLoadFactor, maxLoadFactor) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Float.hashCode(maxLoadFactor);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadPolicy[maxLoadFactor=" + maxLoadFactor + "]";
+    }
+}
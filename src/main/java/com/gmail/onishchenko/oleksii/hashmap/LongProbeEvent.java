@@ -0,0 +1,49 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted when finding the position of a key takes more
+ * probes than <tt>DoubleHashingHashTable.LONG_PROBE_THRESHOLD</tt>, which is given
+ * by the system property <tt>com.gmail.onishchenko.oleksii.hashmap.longProbeThreshold</tt>
+ * (32 by default). Disabled by default.
+ */
+@Name("com.gmail.onishchenko.oleksii.hashmap.LongProbe")
+@Label("Hash Table Long Probe")
+@Description("Probe sequence that is longer than the threshold")
+@Category("Hash Table")
+@Enabled(false)
+@StackTrace(false)
+final class LongProbeEvent extends Event {
+    @Label("Key")
+    int key;
+
+    @Label("Probe Count")
+    int probeCount;
+
+    @Label("Capacity")
+    int capacity;
+
+    /**
+     * Emits the event if it is enabled.
+     *
+     * @param key        the key whose position was looked for
+     * @param probeCount the number of probed positions
+     * @param capacity   the capacity of the hash table
+     */
+    static void emit(int key, int probeCount, int capacity) {
+        LongProbeEvent event = new LongProbeEvent();
+        if (event.isEnabled()) {
+            event.key = key;
+            event.probeCount = probeCount;
+            event.capacity = capacity;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Sizes of objects and arrays in the heap of the running HotSpot JVM.
+ * The compressed oops, compressed class pointers and object alignment settings
+ * are read from the VM options; the defaults of a 64-bit JVM are used if
+ * the options are not available.
+ */
+final class MemoryLayout {
+    /**
+     * The size of a reference.
+     */
+    static final int REFERENCE_SIZE;
+
+    /**
+     * The size of the header of an object.
+     */
+    static final int OBJECT_HEADER_SIZE;
+
+    /**
+     * The size of the header of an array including the length.
+     */
+    static final int ARRAY_HEADER_SIZE;
+
+    /**
+     * The alignment of every object in the heap.
+     */
+    static final int OBJECT_ALIGNMENT;
+
+    static {
+        boolean is64Bit = !"32".equals(System.getProperty("sun.arch.data.model"));
+        boolean compressedOops = is64Bit && booleanVmOption("UseCompressedOops", true);
+        boolean compressedClassPointers = is64Bit && booleanVmOption("UseCompressedClassPointers", compressedOops);
+        int wordSize = is64Bit ? 8 : 4;
+
+        REFERENCE_SIZE = is64Bit && !compressedOops ? 8 : 4;
+        OBJECT_HEADER_SIZE = wordSize + (compressedClassPointers || !is64Bit ? 4 : 8);
+        ARRAY_HEADER_SIZE = align(OBJECT_HEADER_SIZE + 4, compressedClassPointers || !is64Bit ? 4 : wordSize);
+        OBJECT_ALIGNMENT = is64Bit ? intVmOption("ObjectAlignmentInBytes", 8) : 8;
+    }
+
+    private MemoryLayout() {
+    }
+
+    /**
+     * Returns the size of an instance of the given class without
+     * the objects it refers to.
+     *
+     * @param type the class of the instance
+     * @return the shallow size of an instance in bytes
+     */
+    static long instanceSize(Class<?> type) {
+        long size = OBJECT_HEADER_SIZE;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += fieldSize(field.getType());
+                }
+            }
+        }
+        return align(size, OBJECT_ALIGNMENT);
+    }
+
+    /**
+     * Returns the size of an array of references with the given length.
+     *
+     * @param length the length of the array
+     * @return the size of the array in bytes
+     */
+    static long referenceArraySize(int length) {
+        return align(ARRAY_HEADER_SIZE + (long) REFERENCE_SIZE * length, OBJECT_ALIGNMENT);
+    }
+
+    /**
+     * Rounds the size up to a multiple of the alignment.
+     */
+    static long align(long size, int alignment) {
+        return (size + alignment - 1) / alignment * alignment;
+    }
+
+    private static int align(int size, int alignment) {
+        return (int) align((long) size, alignment);
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_SIZE;
+    }
+
+    private static boolean booleanVmOption(String name, boolean defaultValue) {
+        String value = vmOption(name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    private static int intVmOption(String name, int defaultValue) {
+        String value = vmOption(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static String vmOption(String name) {
+        try {
+            return ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                    .getVMOption(name)
+                    .getValue();
+        } catch (RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe view of a hash table that is read by many threads and written rarely.
+ * <p>
+ * Reads run without locking under a <tt>StampedLock</tt> optimistic stamp and are
+ * repeated under the read lock only if a write happened in the meantime. Writes
+ * take the exclusive lock. A read that races with a write may therefore observe
+ * the delegate in an inconsistent state: the delegate must guarantee that such
+ * a read terminates and does not modify the table. Any exception thrown by
+ * an invalidated read is discarded. <tt>DoubleHashingHashTable</tt> and
+ * <tt>ShardedHashTable</tt> meet these requirements.
+ * <p>
+ * The delegate must not be accessed directly once it is wrapped.
+ */
+public class ReadMostlyHashTable implements HashTable {
+    /**
+     * The wrapped hash table.
+     */
+    private final HashTable delegate;
+
+    /**
+     * The lock that guards the delegate.
+     */
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Constructs a <tt>ReadMostlyHashTable</tt> backed by the given hash table.
+     *
+     * @param delegate the hash table to wrap
+     * @throws NullPointerException if the delegate is null
+     */
+    public ReadMostlyHashTable(HashTable delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    /**
+     * Returns <tt>true</tt> if this hash table contains a mapping for the
+     * specified key.
+     *
+     * @param key The key whose presence in this hash table is to be tested
+     * @return <tt>true</tt> if this hash table contains a mapping for the specified
+     * key.
+     */
+    @Override
+    public boolean containsKey(int key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                boolean result = delegate.containsKey(key);
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return delegate.containsKey(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key The key whose presence in this hash table
+     * @throws IllegalArgumentException if this hash table contains
+     *                                  no mapping for the key.
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                long result = delegate.get(key);
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return delegate.get(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Associates the specified value with the specified key in this hash table.
+     * If the hash table previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return <tt>true</tt> if the value was associated with the key in
+     * this hash table
+     */
+    @Override
+    public boolean put(int key, long value) {
+        long stamp = lock.writeLock();
+        try {
+            return delegate.put(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in this hash table.
+     *
+     * @return the number of key-value mappings in this hash table
+     */
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int result = delegate.size();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return delegate.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if this hash table contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this hash table contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Performs the given action for each key-value mapping in this hash table
+     * holding the read lock, so the action must not write to this hash table.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the action is null
+     */
+    @Override
+    public void forEach(EntryConsumer action) {
+        Objects.requireNonNull(action);
+        long stamp = lock.readLock();
+        try {
+            delegate.forEach(action);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns a string representation of the contents of the wrapped hash table.
+     */
+    @Override
+    public String toString() {
+        long stamp = lock.readLock();
+        try {
+            return delegate.toString();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
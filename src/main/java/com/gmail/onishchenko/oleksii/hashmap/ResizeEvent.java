@@ -0,0 +1,30 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when a hash table is rehashed into a table
+ * of another capacity. The duration of the event is the duration of the rehash.
+ * Disabled by default.
+ */
+@Name("com.gmail.onishchenko.oleksii.hashmap.Resize")
+@Label("Hash Table Resize")
+@Description("Rehash of a hash table into a table of another capacity")
+@Category("Hash Table")
+@Enabled(false)
+final class ResizeEvent extends Event {
+    @Label("Old Capacity")
+    int oldCapacity;
+
+    @Label("New Capacity")
+    int newCapacity;
+
+    @Label("Size")
+    @Description("The number of key-value mappings that were rehashed")
+    int size;
+}
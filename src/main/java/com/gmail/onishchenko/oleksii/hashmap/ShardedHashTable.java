@@ -0,0 +1,393 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.stream.IntStream;
+
+public class ShardedHashTable implements HashTable {
+    /**
+     * Statistics of one shard of the hash table.
+     */
+    public static final class ShardStatistics {
+        private final int index;
+        private final int size;
+        private final int capacity;
+
+        ShardStatistics(int index, int size, int capacity) {
+            this.index = index;
+            this.size = size;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Returns the index of the shard.
+         *
+         * @return the index of the shard
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the number of key-value mappings in the shard.
+         *
+         * @return the number of key-value mappings in the shard
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the capacity of the shard.
+         *
+         * @return the capacity of the shard
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Returns the ratio of the number of mappings to the capacity of the shard.
+         *
+         * @return the load factor of the shard
+         */
+        public double getLoadFactor() {
+            return (double) size / capacity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ShardStatistics that = (ShardStatistics) o;
+            return index == that.index &&
+                    size == that.size &&
+                    capacity == that.capacity;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, size, capacity);
+        }
+
+        @Override
+        public String toString() {
+            return "shard " + index + ": " + size + "/" + capacity;
+        }
+    }
+
+    /**
+     * The default number of shards - MUST be a power of two.
+     */
+    static final int DEFAULT_SHARD_COUNT = 16;
+
+    /**
+     * The maximum number of shards.
+     */
+    static final int MAX_SHARD_COUNT = 1 << 16;
+
+    /**
+     * Multiplier used to spread the bits of a key (2^32 / golden ratio).
+     */
+    private static final int SPREAD_MULTIPLIER = 0x9E3779B9;
+
+    /**
+     * The sub-tables. A key is always stored in the shard chosen
+     * by the high bits of its spread hash.
+     */
+    private final DoubleHashingHashTable[] shards;
+
+    /**
+     * The number of bits the spread hash is shifted right to get a shard index.
+     */
+    private final int shardShift;
+
+    /**
+     * The policy that tells when a shard is grown.
+     */
+    private final LoadPolicy loadPolicy;
+
+    /**
+     * Constructs an empty <tt>ShardedHashTable</tt>.
+     *
+     * @param shardCount            the number of shards. MUST be a power of two
+     *                              not greater than <tt>MAX_SHARD_COUNT</tt>.
+     * @param desiredShardCapacity  the desired initial capacity of each shard
+     * @param loadPolicy            the policy that tells when a shard is grown
+     * @throws IllegalArgumentException if the shard count is not a positive power of two
+     *                                  or the desired shard capacity is illegal
+     * @throws NullPointerException     if the load policy is null
+     */
+    public ShardedHashTable(int shardCount, int desiredShardCapacity, LoadPolicy loadPolicy) {
+        if (shardCount <= 0 || shardCount > MAX_SHARD_COUNT || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("Illegal shard count: " + shardCount);
+        }
+        this.loadPolicy = Objects.requireNonNull(loadPolicy);
+        this.shardShift = Integer.SIZE - Integer.numberOfTrailingZeros(shardCount);
+        this.shards = new DoubleHashingHashTable[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new DoubleHashingHashTable(desiredShardCapacity);
+        }
+    }
+
+    /**
+     * Constructs an empty <tt>ShardedHashTable</tt> with the given number of shards,
+     * the default shard capacity (17) and the default load factor (0.75).
+     *
+     * @param shardCount the number of shards. MUST be a power of two
+     *                   not greater than <tt>MAX_SHARD_COUNT</tt>.
+     * @throws IllegalArgumentException if the shard count is not a positive power of two
+     */
+    public ShardedHashTable(int shardCount) {
+        this(shardCount, DoubleHashingHashTable.DEFAULT_CAPACITY, LoadPolicy.DEFAULT);
+    }
+
+    /**
+     * Constructs an empty <tt>ShardedHashTable</tt> with the default
+     * number of shards (16).
+     */
+    public ShardedHashTable() {
+        this(DEFAULT_SHARD_COUNT);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this hash table or
+     * <tt>Integer.MAX_VALUE</tt> if it contains more mappings.
+     *
+     * @return the number of key-value mappings in this hash table
+     * @see #longSize()
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(longSize(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this hash table.
+     *
+     * @return the number of key-value mappings in this hash table
+     */
+    public long longSize() {
+        long size = 0;
+        for (DoubleHashingHashTable shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this hash table contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this hash table contains no key-value mappings
+     */
+    @Override
+    public boolean isEmpty() {
+        for (DoubleHashingHashTable shard : shards) {
+            if (!shard.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the total capacity of all shards.
+     *
+     * @return the total capacity of all shards
+     */
+    public long capacity() {
+        long capacity = 0;
+        for (DoubleHashingHashTable shard : shards) {
+            capacity += shard.capacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this hash table contains a mapping for the
+     * specified key.
+     *
+     * @param key The key whose presence in this hash table is to be tested
+     * @return <tt>true</tt> if this hash table contains a mapping for the specified
+     * key.
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return shards[shardIndex(key)].containsKey(key);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped.
+     *
+     * @param key The key whose presence in this hash table
+     * @throws IllegalArgumentException if this hash table contains
+     *                                  no mapping for the key.
+     * @see #put(int, long)
+     */
+    @Override
+    public long get(int key) {
+        return shards[shardIndex(key)].get(key);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this hash table.
+     * If the hash table previously contained a mapping for the key, the old
+     * value is replaced. The shard of the key is grown if the new mapping
+     * would exceed its load factor.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return <tt>true</tt> if the value was associated with the key in
+     * this hash table
+     */
+    @Override
+    public boolean put(int key, long value) {
+        return putIntoShard(shardIndex(key), key, value);
+    }
+
+    /**
+     * Associates the values with the keys at the same indices. Keys are
+     * partitioned by shard first and the shards are filled in parallel.
+     * If a key occurs several times the last value wins.
+     *
+     * @param keys   keys with which the values are to be associated
+     * @param values values to be associated with the keys
+     * @return <tt>true</tt> if all values were associated with their keys
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public boolean putAll(int[] keys, long[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values have different lengths: "
+                    + keys.length + " and " + values.length);
+        }
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        int[] shardStarts = new int[shards.length + 1];
+        int[] shardOf = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            shardOf[i] = shardIndex(keys[i]);
+            shardStarts[shardOf[i] + 1]++;
+        }
+        for (int s = 0; s < shards.length; s++) {
+            shardStarts[s + 1] += shardStarts[s];
+        }
+        int[] order = new int[keys.length];
+        int[] next = Arrays.copyOf(shardStarts, shards.length);
+        for (int i = 0; i < keys.length; i++) {
+            order[next[shardOf[i]]++] = i;
+        }
+
+        long failures = IntStream.range(0, shards.length)
+                .parallel()
+                .filter(s -> {
+                    boolean result = true;
+                    for (int j = shardStarts[s]; j < shardStarts[s + 1]; j++) {
+                        int i = order[j];
+                        result &= putIntoShard(s, keys[i], values[i]);
+                    }
+                    return !result;
+                })
+                .count();
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "putAll";
+            event.keyCount = keys.length;
+            event.capacity = capacity();
+            event.commit();
+        }
+        return failures == 0;
+    }
+
+    /**
+     * Performs the given action for each key-value mapping in this hash table
+     * shard by shard.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the action is null
+     */
+    @Override
+    public void forEach(EntryConsumer action) {
+        Objects.requireNonNull(action);
+        for (DoubleHashingHashTable shard : shards) {
+            shard.forEach(action);
+        }
+    }
+
+    /**
+     * Returns the statistics of every shard ordered by the shard index.
+     *
+     * @return the statistics of every shard
+     */
+    public List<ShardStatistics> shardStatistics() {
+        List<ShardStatistics> statistics = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            statistics.add(new ShardStatistics(i, shards[i].size(), shards[i].capacity()));
+        }
+        return Collections.unmodifiableList(statistics);
+    }
+
+    /**
+     * Returns a string representation of the contents of the specified hash table.
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",", "ShardedHashTable[", "]");
+        forEach((key, value) -> joiner.add(key + "=" + value));
+        return joiner.toString();
+    }
+
+    /**
+     * Returns the index of the shard for the given key. The key is multiplied
+     * by the golden ratio constant so that its high bits depend on all bits of the key.
+     */
+    int shardIndex(int key) {
+        return ((key * SPREAD_MULTIPLIER) >>> shardShift) & (shards.length - 1);
+    }
+
+    /**
+     * Puts the mapping into the shard with the given index growing the shard if needed.
+     */
+    private boolean putIntoShard(int index, int key, long value) {
+        DoubleHashingHashTable shard = shards[index];
+        if (loadPolicy.isExceeded(shard.size() + 1, shard.capacity())
+                && shard.capacity() < DoubleHashingHashTable.MAX_CAPACITY
+                && !shard.containsKey(key)) {
+            shard = grow(shard);
+            shards[index] = shard;
+        }
+        return shard.put(key, value);
+    }
+
+    /**
+     * Copies all mappings of the shard into a new shard of about twice the capacity.
+     * The rehash is reported to Flight Recorder.
+     */
+    private DoubleHashingHashTable grow(DoubleHashingHashTable shard) {
+        ResizeEvent event = new ResizeEvent();
+        event.begin();
+        int newCapacity = (int) Math.min(2L * shard.capacity(), DoubleHashingHashTable.MAX_CAPACITY);
+        DoubleHashingHashTable grown = new DoubleHashingHashTable(newCapacity);
+        shard.forEach(grown::put);
+        event.end();
+        if (event.shouldCommit()) {
+            event.oldCapacity = shard.capacity();
+            event.newCapacity = grown.capacity();
+            event.size = grown.size();
+            event.commit();
+        }
+        return grown;
+    }
+}
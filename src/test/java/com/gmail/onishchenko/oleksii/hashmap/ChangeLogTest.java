@@ -0,0 +1,362 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeLogTest {
+
+    private Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("change-log");
+        file = directory.resolve("changes.log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.delete(directory);
+    }
+
+    @Test
+    void illegalBatchSize() {
+        //When
+        assertThrows(IllegalArgumentException.class, () -> ChangeLog.open(file, 0, ChangeLog.FsyncPolicy.NEVER));
+    }
+
+    @DisplayName(value = "void append(int, long); long replay(Path, EntryConsumer);")
+    @Nested
+    class AppendAndReplay {
+        @Test
+        void missingFile() throws IOException {
+            //When
+            long result = ChangeLog.replay(file, (key, value) -> {
+                throw new AssertionError();
+            });
+
+            //Then
+            assertThat(result).isEqualTo(0);
+        }
+
+        @ParameterizedTest
+        @EnumSource(ChangeLog.FsyncPolicy.class)
+        void replayInOrder(ChangeLog.FsyncPolicy fsyncPolicy) throws IOException {
+            //Given
+            try (ChangeLog log = ChangeLog.open(file, 4, fsyncPolicy)) {
+                for (int i = 0; i < 10; i++) {
+                    log.append(i % 3, i);
+                }
+                assertThat(log.recordCount()).isEqualTo(10);
+            }
+
+            //When
+            List<String> replayed = new ArrayList<>();
+            long result = ChangeLog.replay(file, (key, value) -> replayed.add(key + "=" + value));
+
+            //Then
+            assertThat(result).isEqualTo(10);
+            assertThat(replayed).containsExactly("0=0", "1=1", "2=2", "0=3", "1=4", "2=5", "0=6", "1=7", "2=8", "0=9");
+        }
+
+        @Test
+        void pendingRecordsAreWrittenByBatch() throws IOException {
+            //Given
+            try (ChangeLog log = ChangeLog.open(file, 4, ChangeLog.FsyncPolicy.NEVER)) {
+                for (int i = 0; i < 6; i++) {
+                    log.append(i, i);
+                }
+
+                //Then
+                assertThat(ChangeLog.replay(file, (key, value) -> {
+                })).isEqualTo(4);
+                log.flush();
+                assertThat(ChangeLog.replay(file, (key, value) -> {
+                })).isEqualTo(6);
+            }
+        }
+
+        @Test
+        void reopenAppends() throws IOException {
+            //Given
+            try (ChangeLog log = ChangeLog.open(file, 4, ChangeLog.FsyncPolicy.NEVER)) {
+                log.append(1, 10);
+            }
+
+            //When
+            try (ChangeLog log = ChangeLog.open(file, 4, ChangeLog.FsyncPolicy.NEVER)) {
+                assertThat(log.recordCount()).isEqualTo(1);
+                log.append(2, 20);
+            }
+
+            //Then
+            assertThat(ChangeLog.replay(file, (key, value) -> {
+            })).isEqualTo(2);
+        }
+    }
+
+    @DisplayName(value = "Recovery after a crash")
+    @Nested
+    class TornBatch {
+        @Test
+        void incompleteBatchIsIgnoredAndCutOff() throws IOException {
+            //Given
+            try (ChangeLog log = ChangeLog.open(file, 2, ChangeLog.FsyncPolicy.EVERY_BATCH)) {
+                log.append(1, 10);
+                log.append(2, 20);
+            }
+            long validLength = Files.size(file);
+            Files.write(file, new byte[]{0, 0, 0, 2, 1, 0, 0}, StandardOpenOption.APPEND);
+
+            //When
+            long replayed = ChangeLog.replay(file, (key, value) -> {
+            });
+            try (ChangeLog log = ChangeLog.open(file, 2, ChangeLog.FsyncPolicy.EVERY_BATCH)) {
+                assertThat(Files.size(file)).isEqualTo(validLength);
+                log.append(3, 30);
+            }
+
+            //Then
+            assertThat(replayed).isEqualTo(2);
+            assertThat(ChangeLog.replay(file, (key, value) -> {
+            })).isEqualTo(3);
+        }
+
+        @Test
+        void corruptedBatchEndsTheLog() throws IOException {
+            //Given
+            try (ChangeLog log = ChangeLog.open(file, 1, ChangeLog.FsyncPolicy.NEVER)) {
+                log.append(1, 10);
+                log.append(2, 20);
+                log.append(3, 30);
+            }
+            byte[] content = Files.readAllBytes(file);
+            int batchLength = content.length / 3;
+            content[batchLength + 6] ^= 1;
+            Files.write(file, content);
+
+            //When
+            List<Integer> replayed = new ArrayList<>();
+            ChangeLog.replay(file, (key, value) -> replayed.add(key));
+
+            //Then
+            assertThat(replayed).containsExactly(1);
+        }
+    }
+
+    @DisplayName(value = "Write errors")
+    @Nested
+    class WriteErrors {
+        @Test
+        void failedBatchIsCutBackAndRetried() throws IOException {
+            //Given
+            FaultyFileChannel channel = new FaultyFileChannel(file);
+            try (ChangeLog log = ChangeLog.open(channel, 2, ChangeLog.FsyncPolicy.NEVER)) {
+                log.append(1, 10);
+                log.append(2, 20);
+                channel.failNextWrite = true;
+
+                //When
+                log.append(3, 30);
+                assertThrows(IOException.class, () -> log.append(4, 40));
+                assertThat(Files.size(file)).isEqualTo(2 * Integer.BYTES + 2 * ChangeLog.RECORD_SIZE);
+                log.append(5, 50);
+                log.sync();
+            }
+
+            //Then
+            List<Integer> replayed = new ArrayList<>();
+            ChangeLog.replay(file, (key, value) -> replayed.add(key));
+            assertThat(replayed).containsExactly(1, 2, 3, 4, 5);
+        }
+
+        @Test
+        void logFailsIfItCannotBeCutBack() throws IOException {
+            //Given
+            FaultyFileChannel channel = new FaultyFileChannel(file);
+            try (ChangeLog log = ChangeLog.open(channel, 2, ChangeLog.FsyncPolicy.NEVER)) {
+                log.append(1, 10);
+                log.append(2, 20);
+                channel.failNextWrite = true;
+                channel.failTruncate = true;
+                log.append(3, 30);
+                assertThrows(IOException.class, () -> log.append(4, 40));
+                channel.failTruncate = false;
+
+                //When
+                assertThrows(IOException.class, () -> log.append(5, 50));
+                assertThrows(IOException.class, log::flush);
+                assertThrows(IOException.class, log::sync);
+                assertThrows(IOException.class, log::truncate);
+            }
+
+            //Then
+            List<Integer> replayed = new ArrayList<>();
+            ChangeLog.replay(file, (key, value) -> replayed.add(key));
+            assertThat(replayed).containsExactly(1, 2);
+        }
+    }
+
+    @DisplayName(value = "void truncate();")
+    @Nested
+    class Truncate {
+        @Test
+        void discardAllRecords() throws IOException {
+            //Given
+            try (ChangeLog log = ChangeLog.open(file, 2, ChangeLog.FsyncPolicy.NEVER)) {
+                log.append(1, 10);
+                log.append(2, 20);
+                log.append(3, 30);
+
+                //When
+                log.truncate();
+                log.append(4, 40);
+
+                //Then
+                assertThat(log.recordCount()).isEqualTo(1);
+            }
+            List<Integer> replayed = new ArrayList<>();
+            ChangeLog.replay(file, (key, value) -> replayed.add(key));
+            assertThat(replayed).containsExactly(4);
+        }
+    }
+
+    /**
+     * File channel that writes a part of the next batch and then fails,
+     * and optionally fails to truncate the file.
+     */
+    private static class FaultyFileChannel extends FileChannel {
+        private final FileChannel delegate;
+
+        boolean failNextWrite;
+
+        boolean failTruncate;
+
+        FaultyFileChannel(Path file) throws IOException {
+            delegate = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                ByteBuffer part = src.duplicate();
+                ((Buffer) part).limit(part.position() + part.remaining() / 2);
+                int written = delegate.write(part);
+                ((Buffer) src).position(src.position() + written);
+                throw new IOException("No space left on device");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncate) {
+                throw new IOException("Input/output error");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lookup latency of <tt>CuckooHashTable</tt> and <tt>DoubleHashingHashTable</tt>
+ * at load factors from 0.5 to 0.95. The sample time mode reports the p99 and p99.9
+ * percentiles of present (<tt>hit</tt>) and absent (<tt>miss</tt>) keys. The lookups go
+ * through all inserted keys in shuffled order, so most of them miss the CPU caches.
+ * Every sample times a single lookup; <tt>baseline</tt> measures the same call without
+ * the lookup, the cost of the timer and of reading the key, to subtract from the others.
+ * <p>
+ * Run with <tt>mvn -P benchmark test-compile exec:exec -Dbenchmark=CuckooHashTableBenchmark</tt>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CuckooHashTableBenchmark {
+    private static final int CAPACITY = 1 << 20;
+
+    /**
+     * The number of keys looked up in turn - MUST be a power of two not less than
+     * the capacity of the tables, so that every inserted key is looked up.
+     */
+    private static final int LOOKUP_KEYS = CAPACITY << 1;
+
+    @Param({"0.5", "0.75", "0.9", "0.95"})
+    private double loadFactor;
+
+    @Param({"cuckoo", "doubleHashing"})
+    private String implementation;
+
+    private HashTable table;
+
+    private int[] presentKeys;
+
+    private int[] absentKeys;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        int capacity;
+        switch (implementation) {
+            case "cuckoo":
+                CuckooHashTable cuckoo = new CuckooHashTable(CAPACITY);
+                capacity = cuckoo.capacity();
+                table = cuckoo;
+                break;
+            case "doubleHashing":
+                DoubleHashingHashTable doubleHashing = new DoubleHashingHashTable(CAPACITY);
+                capacity = doubleHashing.capacity();
+                table = doubleHashing;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+        Random random = new Random(CAPACITY);
+        int count = (int) (capacity * loadFactor);
+        int[] inserted = new int[count];
+        int size = 0;
+        while (size < count) {
+            int key = random.nextInt();
+            if (!table.containsKey(key) && table.put(key, key)) {
+                inserted[size++] = key;
+            }
+        }
+        presentKeys = new int[LOOKUP_KEYS];
+        absentKeys = new int[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i += size) {
+            shuffle(inserted, random);
+            System.arraycopy(inserted, 0, presentKeys, i, Math.min(size, LOOKUP_KEYS - i));
+        }
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            int key;
+            do {
+                key = random.nextInt();
+            } while (table.containsKey(key));
+            absentKeys[i] = key;
+        }
+    }
+
+    @Benchmark
+    public int baseline() {
+        next = (next + 1) & (LOOKUP_KEYS - 1);
+        return presentKeys[next];
+    }
+
+    @Benchmark
+    public long hit() {
+        next = (next + 1) & (LOOKUP_KEYS - 1);
+        return table.get(presentKeys[next]);
+    }
+
+    @Benchmark
+    public boolean miss() {
+        next = (next + 1) & (LOOKUP_KEYS - 1);
+        return table.containsKey(absentKeys[next]);
+    }
+
+    /**
+     * Fisher-Yates shuffle.
+     */
+    private static void shuffle(int[] keys, Random random) {
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+    }
+}
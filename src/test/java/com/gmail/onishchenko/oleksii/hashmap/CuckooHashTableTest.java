@@ -0,0 +1,170 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+class CuckooHashTableTest {
+
+    private CuckooHashTable instance;
+
+    @BeforeEach
+    void setUp() {
+        instance = new CuckooHashTable();
+    }
+
+    @Nested
+    class CreatingHashTable {
+        @Test
+        void defaultConstructor() {
+            //Then
+            assertThat(instance.capacity()).isEqualTo(CuckooHashTable.DEFAULT_CAPACITY);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {-10, 0, CuckooHashTable.MAX_CAPACITY + 1})
+        void illegalDesiredCapacity(int capacity) {
+            //When
+            assertThrows(IllegalArgumentException.class, () -> new CuckooHashTable(capacity));
+        }
+
+        @TestFactory
+        List<DynamicTest> success() {
+            return asList(
+                    createSuccessTest(1, 4),
+                    createSuccessTest(4, 4),
+                    createSuccessTest(5, 8),
+                    createSuccessTest(16, 16),
+                    createSuccessTest(17, 32),
+                    createSuccessTest(1000, 1024)
+            );
+        }
+
+        private DynamicTest createSuccessTest(int desiredCapacity, int expectedCapacity) {
+            return dynamicTest("desiredCapacity = " + desiredCapacity, () -> {
+                //When
+                instance = new CuckooHashTable(desiredCapacity);
+
+                //Then
+                assertThat(instance.capacity()).isEqualTo(expectedCapacity);
+            });
+        }
+    }
+
+    @DisplayName(value = "boolean put(); long get(); boolean containsKey(); int size();")
+    @Nested
+    class PutAndGet {
+        @Test
+        void emptyHashTable() {
+            //Then
+            assertThat(instance.size()).isEqualTo(0);
+            assertThat(instance.isEmpty()).isTrue();
+            assertThat(instance.containsKey(0)).isFalse();
+            assertThrows(IllegalArgumentException.class, () -> instance.get(0));
+        }
+
+        @Test
+        void updatedEntry() {
+            //Given
+            instance.put(1, 7);
+            instance.put(2, 13);
+            instance.put(1, 19);
+
+            //Then
+            assertThat(instance.size()).isEqualTo(2);
+            assertThat(instance.get(1)).isEqualTo(19);
+            assertThat(instance.containsKey(2)).isTrue();
+            assertThat(instance.containsKey(3)).isFalse();
+        }
+
+        @Test
+        void stashIsUsedWhenBucketsAreFull() {
+            //Given
+            instance = new CuckooHashTable(1);
+            int count = CuckooHashTable.SLOTS_PER_BUCKET + CuckooHashTable.STASH_CAPACITY;
+
+            //When
+            for (int i = 0; i < count; i++) {
+                assertThat(instance.put(i, i * 10L)).isTrue();
+            }
+
+            //Then
+            assertThat(instance.size()).isEqualTo(count);
+            assertThat(instance.stashSize()).isEqualTo(CuckooHashTable.STASH_CAPACITY);
+            for (int i = 0; i < count; i++) {
+                assertThat(instance.get(i)).isEqualTo(i * 10L);
+            }
+            assertThat(instance.put(3, 33)).isTrue();
+            assertThat(instance.get(3)).isEqualTo(33);
+            assertThat(instance.put(count, 0)).isFalse();
+            assertThat(instance.size()).isEqualTo(count);
+        }
+
+        @ParameterizedTest
+        @ValueSource(doubles = {0.5, 0.75, 0.9, 0.95})
+        void highLoadFactor(double loadFactor) {
+            //Given
+            instance = new CuckooHashTable(1 << 16);
+            int count = (int) (instance.capacity() * loadFactor);
+            Random random = new Random(count);
+            Map<Integer, Long> expected = new HashMap<>();
+
+            //When
+            while (expected.size() < count) {
+                int key = random.nextInt();
+                long value = random.nextLong();
+                assertThat(instance.put(key, value)).isTrue();
+                expected.put(key, value);
+            }
+
+            //Then
+            assertThat(instance.size()).isEqualTo(count);
+            expected.forEach((key, value) -> assertThat(instance.get(key)).isEqualTo(value));
+        }
+    }
+
+    @DisplayName(value = "void forEach(EntryConsumer); String toString();")
+    @Nested
+    class Iteration {
+        @Test
+        void visitStashToo() {
+            //Given
+            instance = new CuckooHashTable(1);
+            for (int i = 0; i < 6; i++) {
+                instance.put(i, -i);
+            }
+            Map<Integer, Long> visited = new HashMap<>();
+
+            //When
+            instance.forEach(visited::put);
+
+            //Then
+            assertThat(visited).hasSize(6);
+            visited.forEach((key, value) -> assertThat(value).isEqualTo(-key));
+        }
+
+        @Test
+        void emptyHashTable() {
+            //When
+            String result = instance.toString();
+
+            //Then
+            assertThat(result).isEqualTo("CuckooHashTable[]");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a <tt>DoubleHashingHashTable</tt> with the parallel bulk
+ * <tt>from</tt> and with sequential <tt>put</tt> calls into a hash table
+ * of the same capacity.
+ * <p>
+ * Run with <tt>mvn -P benchmark test-compile exec:exec -Dbenchmark=DoubleHashingHashTableBuildBenchmark</tt>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoubleHashingHashTableBuildBenchmark {
+    @Param({"65536", "1048576", "8388608"})
+    private int size;
+
+    private int[] keys;
+
+    private long[] values;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(size);
+        keys = new int[size];
+        values = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt();
+            values[i] = random.nextLong();
+        }
+    }
+
+    @Benchmark
+    public DoubleHashingHashTable from() {
+        return DoubleHashingHashTable.from(keys, values, LoadPolicy.DEFAULT);
+    }
+
+    @Benchmark
+    public DoubleHashingHashTable sequentialPut() {
+        DoubleHashingHashTable table = new DoubleHashingHashTable(LoadPolicy.DEFAULT.desiredCapacity(size));
+        for (int i = 0; i < size; i++) {
+            table.put(keys[i], values[i]);
+        }
+        return table;
+    }
+}
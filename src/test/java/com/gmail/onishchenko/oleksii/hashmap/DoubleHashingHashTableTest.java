@@ -5,11 +5,16 @@ import nl.jqno.equalsverifier.Warning;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.openjdk.jol.info.GraphLayout;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 
@@ -284,6 +289,185 @@ class DoubleHashingHashTableTest {
         }
     }
 
+    @DisplayName(value = "DoubleHashingHashTable from(int[], long[], LoadPolicy);")
+    @Nested
+    class From {
+        @Test
+        void differentLengths() {
+            //When
+            assertThrows(IllegalArgumentException.class,
+                    () -> DoubleHashingHashTable.from(new int[3], new long[2], LoadPolicy.DEFAULT));
+        }
+
+        @Test
+        void nullLoadPolicy() {
+            //When
+            assertThrows(NullPointerException.class,
+                    () -> DoubleHashingHashTable.from(new int[3], new long[3], null));
+        }
+
+        @Test
+        void emptyArrays() {
+            //When
+            instance = DoubleHashingHashTable.from(new int[0], new long[0], LoadPolicy.DEFAULT);
+
+            //Then
+            assertThat(instance.isEmpty()).isTrue();
+            assertThat(instance.capacity()).isEqualTo(2);
+        }
+
+        @Test
+        void capacityIsChosenOnce() {
+            //Given
+            int[] keys = {1, 2, 3, 4, 5, 6, 7, 8};
+            long[] values = {10, 20, 30, 40, 50, 60, 70, 80};
+
+            //When
+            instance = DoubleHashingHashTable.from(keys, values, new LoadPolicy(0.5f));
+
+            //Then
+            assertThat(instance.capacity()).isEqualTo(17);
+            assertThat(instance.size()).isEqualTo(8);
+            assertThat(instance.get(5)).isEqualTo(50);
+        }
+
+        @ParameterizedTest
+        @ValueSource(floats = {0.5f, 0.75f, 1.0f})
+        void parallelBuildLastValueWins(float loadFactor) {
+            //Given
+            int count = DoubleHashingHashTable.PARALLEL_BUILD_THRESHOLD * 16;
+            Random random = new Random(count);
+            int[] keys = new int[count];
+            long[] values = new long[count];
+            Map<Integer, Long> expected = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                keys[i] = random.nextInt(count) - count / 2;
+                values[i] = random.nextLong();
+                expected.put(keys[i], values[i]);
+            }
+
+            //When
+            instance = DoubleHashingHashTable.from(keys, values, new LoadPolicy(loadFactor));
+
+            //Then
+            assertThat(instance.size()).isEqualTo(expected.size());
+            expected.forEach((key, value) -> assertThat(instance.get(key)).isEqualTo(value));
+        }
+
+        @ParameterizedTest
+        @ValueSource(floats = {0.5f, 0.75f, 1.0f})
+        void partitionedInsertion(float loadFactor) {
+            //Given
+            int count = 100_000;
+            Random random = new Random(count);
+            int[] keys = new int[count];
+            long[] values = new long[count];
+            Map<Integer, Long> expected = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                keys[i] = random.nextInt(count) - count / 2;
+                values[i] = random.nextLong();
+                expected.put(keys[i], values[i]);
+            }
+            instance = new DoubleHashingHashTable(new LoadPolicy(loadFactor).desiredCapacity(count));
+
+            //When
+            instance.putAllPartitioned(keys, values);
+
+            //Then
+            assertThat(instance.size()).isEqualTo(expected.size());
+            expected.forEach((key, value) -> assertThat(instance.get(key)).isEqualTo(value));
+        }
+    }
+
+    @DisplayName(value = "long memoryFootprintBytes(); CapacityEstimate estimate(int, LoadPolicy);")
+    @Nested
+    @Tag("memory-footprint")
+    class MemoryFootprint {
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 10, 17})
+        void matchesMeasuredSize(int count) {
+            //Given
+            for (int i = 0; i < count; i++) {
+                instance.put(i * 3, i);
+            }
+
+            //When
+            long result = instance.memoryFootprintBytes();
+
+            //Then
+            assertThat(result).isEqualTo(GraphLayout.parseInstance(instance).totalSize());
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 1000, 100_000})
+        void estimateMatchesMeasuredSize(int count) {
+            //Given
+            LoadPolicy loadPolicy = new LoadPolicy(0.6f);
+            int[] keys = new int[count];
+            long[] values = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = i * 7 - count;
+                values[i] = i;
+            }
+            instance = DoubleHashingHashTable.from(keys, values, loadPolicy);
+
+            //When
+            CapacityEstimate result = DoubleHashingHashTable.estimate(count, loadPolicy);
+
+            //Then
+            assertThat(result.getExpectedSize()).isEqualTo(count);
+            assertThat(result.getCapacity()).isEqualTo(instance.capacity());
+            assertThat(result.getLoadFactor()).isLessThanOrEqualTo(0.6);
+            assertThat(result.getBytes()).isEqualTo(GraphLayout.parseInstance(instance).totalSize());
+        }
+
+        @Test
+        void expectedProbes() {
+            //When
+            CapacityEstimate empty = DoubleHashingHashTable.estimate(0, LoadPolicy.DEFAULT);
+            CapacityEstimate half = DoubleHashingHashTable.estimate(500_000, new LoadPolicy(0.5f));
+            CapacityEstimate full = DoubleHashingHashTable.estimate(17, new LoadPolicy(1.0f));
+
+            //Then
+            assertThat(empty.getExpectedSuccessfulProbes()).isEqualTo(0);
+            assertThat(empty.getExpectedUnsuccessfulProbes()).isEqualTo(1);
+            assertThat(half.getExpectedSuccessfulProbes()).isCloseTo(2 * Math.log(2), within(1e-3));
+            assertThat(half.getExpectedUnsuccessfulProbes()).isCloseTo(2, within(1e-3));
+            assertThat(full.getExpectedUnsuccessfulProbes()).isEqualTo(18);
+            assertThat(full.getExpectedSuccessfulProbes()).isGreaterThan(half.getExpectedSuccessfulProbes());
+        }
+    }
+
+    @DisplayName(value = "void forEach(EntryConsumer);")
+    @Nested
+    class ForEach {
+        @Test
+        void emptyHashTable() {
+            //Given
+            StringBuilder visited = new StringBuilder();
+
+            //When
+            instance.forEach((key, value) -> visited.append(key).append('=').append(value));
+
+            //Then
+            assertThat(visited.toString()).isEmpty();
+        }
+
+        @Test
+        void withElements() {
+            //Given
+            instance.put(1, 10);
+            instance.put(2, 20);
+            StringBuilder visited = new StringBuilder();
+
+            //When
+            instance.forEach((key, value) -> visited.append(key).append('=').append(value).append(';'));
+
+            //Then
+            assertThat(visited.toString()).isEqualTo("1=10;2=20;");
+        }
+    }
+
     @DisplayName(value = "String toString();")
     @Nested
     class ToString {
@@ -317,7 +501,7 @@ class DoubleHashingHashTableTest {
         @ValueSource(ints = {2, 3, 5, 7, 631, 4969, 64381, 129803, 213641, 254993, 973051})
         void primeValues(int number) {
             //When
-            boolean result = instance.isPrime(number);
+            boolean result = DoubleHashingHashTable.isPrime(number);
 
             //Then
             assertThat(result).isTrue();
@@ -327,7 +511,7 @@ class DoubleHashingHashTableTest {
         @ValueSource(ints = {0, 1, 4, 9, 630, 4971, 64379, 129801, 213639, 254995, 973027})
         void notPrimeValues(int number) {
             //When
-            boolean result = instance.isPrime(number);
+            boolean result = DoubleHashingHashTable.isPrime(number);
 
             //Then
             assertThat(result).isFalse();
@@ -341,7 +525,7 @@ class DoubleHashingHashTableTest {
         @ValueSource(ints = {-4971, -64379, Integer.MAX_VALUE - 1})
         void illegalArgument(int number) {
             //When
-            assertThrows(IllegalArgumentException.class, () -> instance.nextPrime(number));
+            assertThrows(IllegalArgumentException.class, () -> DoubleHashingHashTable.nextPrime(number));
         }
 
         @TestFactory
@@ -360,7 +544,7 @@ class DoubleHashingHashTableTest {
         private DynamicTest createSuccessTest(int value, int expected) {
             return dynamicTest("starting with " + value, () -> {
                 //When
-                int result = instance.nextPrime(value);
+                int result = DoubleHashingHashTable.nextPrime(value);
 
                 //Then
                 assertThat(result).isEqualTo(expected);
@@ -375,7 +559,7 @@ class DoubleHashingHashTableTest {
         @ValueSource(ints = {-4971, -10, 0, 1, 2})
         void illegalArgument(int number) {
             //When
-            assertThrows(IllegalArgumentException.class, () -> instance.prevPrime(number));
+            assertThrows(IllegalArgumentException.class, () -> DoubleHashingHashTable.prevPrime(number));
         }
 
         @TestFactory
@@ -392,7 +576,7 @@ class DoubleHashingHashTableTest {
         private DynamicTest createSuccessTest(int value, int expected) {
             return dynamicTest("starting with " + value, () -> {
                 //When
-                int result = instance.prevPrime(value);
+                int result = DoubleHashingHashTable.prevPrime(value);
 
                 //Then
                 assertThat(result).isEqualTo(expected);
@@ -407,4 +591,11 @@ class DoubleHashingHashTableTest {
                 .usingGetClass()
                 .verify();
     }
+
+    @Test
+    void capacityEstimateEquals() {
+        EqualsVerifier.forClass(CapacityEstimate.class)
+                .usingGetClass()
+                .verify();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,271 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DurableHashTableTest {
+
+    private Path directory;
+
+    private Path snapshotFile;
+
+    private Path logFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("durable-hash-table");
+        snapshotFile = directory.resolve("table.snapshot");
+        logFile = directory.resolve("table.log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Nested
+    class Opening {
+        @Test
+        void notEmptyHashTable() {
+            //Given
+            DoubleHashingHashTable table = new DoubleHashingHashTable();
+            table.put(1, 10);
+
+            //When
+            assertThrows(IllegalArgumentException.class,
+                    () -> DurableHashTable.open(table, snapshotFile, logFile, ChangeLog.FsyncPolicy.NEVER));
+        }
+
+        @Test
+        void illegalCheckpointThreshold() {
+            //When
+            assertThrows(IllegalArgumentException.class, () -> DurableHashTable.open(new DoubleHashingHashTable(),
+                    snapshotFile, logFile, 16, ChangeLog.FsyncPolicy.NEVER, -1));
+        }
+
+        @Test
+        void emptyDirectory() throws IOException {
+            //When
+            try (DurableHashTable instance = open()) {
+                //Then
+                assertThat(instance.isEmpty()).isTrue();
+            }
+        }
+
+        @Test
+        void corruptedSnapshot() throws IOException {
+            //Given
+            try (DurableHashTable instance = open()) {
+                instance.put(1, 10);
+                instance.checkpoint();
+            }
+            byte[] content = Files.readAllBytes(snapshotFile);
+            content[content.length - 1] ^= 1;
+            Files.write(snapshotFile, content);
+
+            //When
+            DoubleHashingHashTable delegate = new DoubleHashingHashTable();
+            assertThrows(IOException.class, () -> DurableHashTable.open(delegate, snapshotFile, logFile,
+                    ChangeLog.FsyncPolicy.NEVER));
+
+            //Then
+            assertThat(delegate.isEmpty()).isTrue();
+        }
+
+        private DurableHashTable open() throws IOException {
+            return DurableHashTable.open(new DoubleHashingHashTable(), snapshotFile, logFile, ChangeLog.FsyncPolicy.NEVER);
+        }
+    }
+
+    @DisplayName(value = "Recovery")
+    @Nested
+    class Recovery {
+        @Test
+        void replayLog() throws IOException {
+            //Given
+            try (DurableHashTable instance = open(0)) {
+                instance.put(1, 10);
+                instance.put(2, 20);
+                instance.put(1, 11);
+            }
+
+            //When
+            try (DurableHashTable instance = open(0)) {
+                //Then
+                assertThat(instance.size()).isEqualTo(2);
+                assertThat(instance.get(1)).isEqualTo(11);
+                assertThat(instance.get(2)).isEqualTo(20);
+                assertThat(Files.exists(snapshotFile)).isFalse();
+            }
+        }
+
+        @Test
+        void snapshotAndLog() throws IOException {
+            //Given
+            try (DurableHashTable instance = open(0)) {
+                instance.put(1, 10);
+                instance.put(2, 20);
+                instance.checkpoint();
+                assertThat(Files.size(logFile)).isEqualTo(0);
+                instance.put(2, 21);
+                instance.put(3, 30);
+            }
+
+            //When
+            try (DurableHashTable instance = open(0)) {
+                //Then
+                assertThat(instance.toString()).isEqualTo("DoubleHashingHashTable[1=10,2=21,3=30]");
+            }
+        }
+
+        @Test
+        void crashBeforeLogTruncation() throws IOException {
+            //Given
+            DurableHashTable crashed = DurableHashTable.open(new DoubleHashingHashTable(1000), snapshotFile, logFile,
+                    2, ChangeLog.FsyncPolicy.NEVER, 0);
+            crashed.put(1, 10);
+            crashed.put(2, 20);
+            crashed.put(1, 11);
+
+            //When
+            try {
+                crashed.writeSnapshot();
+                try (DurableHashTable instance = open(0)) {
+                    //Then
+                    assertThat(instance.get(1)).isEqualTo(11);
+                    assertThat(instance.get(2)).isEqualTo(20);
+                }
+            } finally {
+                crashed.close();
+            }
+        }
+
+        @Test
+        void failedSnapshotIsDeleted() throws IOException {
+            //Given
+            HashTable failing = new DoubleHashingHashTable() {
+                @Override
+                public void forEach(EntryConsumer action) {
+                    throw new IllegalStateException("Snapshot failed");
+                }
+            };
+            try (DurableHashTable instance = DurableHashTable.open(failing, snapshotFile, logFile,
+                    ChangeLog.FsyncPolicy.NEVER)) {
+                instance.put(1, 10);
+
+                //When
+                assertThrows(IllegalStateException.class, instance::checkpoint);
+
+                //Then
+                assertThat(Files.exists(snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp"))).isFalse();
+                assertThat(Files.exists(snapshotFile)).isFalse();
+            }
+        }
+
+        @Test
+        void rejectedPutIsNotLogged() throws IOException {
+            //Given
+            try (DurableHashTable instance = DurableHashTable.open(new DoubleHashingHashTable(2),
+                    snapshotFile, logFile, 16, ChangeLog.FsyncPolicy.NEVER, 0)) {
+                instance.put(1, 10);
+                instance.put(2, 20);
+                assertThat(instance.put(3, 30)).isFalse();
+            }
+
+            //When
+            long result = ChangeLog.replay(logFile, (key, value) -> {
+            });
+
+            //Then
+            assertThat(result).isEqualTo(2);
+        }
+
+        @Test
+        void periodicCheckpoint() throws IOException {
+            //Given
+            try (DurableHashTable instance = open(100)) {
+                for (int i = 0; i < 250; i++) {
+                    instance.put(i, i * 2L);
+                    if (i == 98) {
+                        assertThat(instance.checkpointIfNeeded()).isFalse();
+                    }
+                    if (i % 100 == 99) {
+                        assertThat(Files.exists(snapshotFile)).isEqualTo(i > 99);
+                        assertThat(instance.checkpointIfNeeded()).isTrue();
+                    }
+                }
+
+                //Then
+                assertThat(Files.exists(snapshotFile)).isTrue();
+                instance.sync();
+                assertThat(ChangeLog.replay(logFile, (key, value) -> {
+                })).isEqualTo(50);
+            }
+
+            //When
+            try (DurableHashTable instance = open(100)) {
+                //Then
+                assertThat(instance.size()).isEqualTo(250);
+                for (int i = 0; i < 250; i++) {
+                    assertThat(instance.get(i)).isEqualTo(i * 2L);
+                }
+            }
+        }
+
+        @Test
+        void checkpointIfNeededDisabled() throws IOException {
+            //Given
+            try (DurableHashTable instance = open(0)) {
+                instance.put(1, 10);
+
+                //When
+                boolean taken = instance.checkpointIfNeeded();
+
+                //Then
+                assertThat(taken).isFalse();
+                assertThat(Files.exists(snapshotFile)).isFalse();
+            }
+        }
+
+        @Test
+        void shardedHashTable() throws IOException {
+            //Given
+            try (DurableHashTable instance = DurableHashTable.open(new ShardedHashTable(),
+                    snapshotFile, logFile, ChangeLog.FsyncPolicy.EVERY_BATCH)) {
+                for (int i = 0; i < 5000; i++) {
+                    instance.put(i, -i);
+                }
+                instance.checkpoint();
+            }
+
+            //When
+            try (DurableHashTable instance = DurableHashTable.open(new ShardedHashTable(),
+                    snapshotFile, logFile, ChangeLog.FsyncPolicy.EVERY_BATCH)) {
+                //Then
+                assertThat(instance.size()).isEqualTo(5000);
+                assertThat(instance.get(4321)).isEqualTo(-4321);
+            }
+        }
+
+        private DurableHashTable open(long checkpointThreshold) throws IOException {
+            return DurableHashTable.open(new DoubleHashingHashTable(1000), snapshotFile, logFile,
+                    16, ChangeLog.FsyncPolicy.NEVER, checkpointThreshold);
+        }
+    }
+}
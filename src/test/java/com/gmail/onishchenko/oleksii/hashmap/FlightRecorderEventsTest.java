@@ -0,0 +1,128 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecorderEventsTest {
+
+    private static final String RESIZE = "com.gmail.onishchenko.oleksii.hashmap.Resize";
+    private static final String LONG_PROBE = "com.gmail.onishchenko.oleksii.hashmap.LongProbe";
+    private static final String BULK_OPERATION = "com.gmail.onishchenko.oleksii.hashmap.BulkOperation";
+
+    private Recording recording;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        recording = new Recording();
+        file = Files.createTempFile("hash-table", ".jfr");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        recording.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void disabledByDefault() throws IOException {
+        //Given
+        recording.start();
+
+        //When
+        fillAndMiss(new DoubleHashingHashTable(101));
+        new ShardedHashTable(1, 2, LoadPolicy.DEFAULT).putAll(new int[]{1, 2, 3, 4}, new long[4]);
+
+        //Then
+        assertThat(events(RESIZE, LONG_PROBE, BULK_OPERATION)).isEmpty();
+    }
+
+    @Test
+    void longProbe() throws IOException {
+        //Given
+        recording.enable(LONG_PROBE);
+        recording.start();
+
+        //When
+        fillAndMiss(new DoubleHashingHashTable(101));
+
+        //Then
+        List<RecordedEvent> events = events(LONG_PROBE);
+        assertThat(events).extracting(event -> event.getInt("key")).contains(-1);
+        for (RecordedEvent event : events) {
+            assertThat(event.getInt("probeCount")).isGreaterThan(DoubleHashingHashTable.LONG_PROBE_THRESHOLD);
+            assertThat(event.getInt("capacity")).isEqualTo(101);
+        }
+    }
+
+    @Test
+    void resize() throws IOException {
+        //Given
+        recording.enable(RESIZE);
+        recording.start();
+        ShardedHashTable instance = new ShardedHashTable(1, 2, new LoadPolicy(1.0f));
+
+        //When
+        instance.put(1, 10);
+        instance.put(2, 20);
+        instance.put(3, 30);
+
+        //Then
+        List<RecordedEvent> events = events(RESIZE);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getInt("oldCapacity")).isEqualTo(2);
+        assertThat(events.get(0).getInt("newCapacity")).isEqualTo(5);
+        assertThat(events.get(0).getInt("size")).isEqualTo(2);
+    }
+
+    @Test
+    void bulkOperations() throws IOException {
+        //Given
+        recording.enable(BULK_OPERATION);
+        recording.start();
+        int[] keys = {1, 2, 3, 4};
+        long[] values = {10, 20, 30, 40};
+
+        //When
+        DoubleHashingHashTable.from(keys, values, LoadPolicy.DEFAULT);
+        new ShardedHashTable().putAll(keys, values);
+
+        //Then
+        List<RecordedEvent> events = events(BULK_OPERATION);
+        assertThat(events).extracting(event -> event.getString("operation")).containsExactly("from", "putAll");
+        assertThat(events).extracting(event -> event.getInt("keyCount")).containsExactly(4, 4);
+    }
+
+    /**
+     * Fills the hash table and looks for an absent key, which probes every position.
+     */
+    private void fillAndMiss(DoubleHashingHashTable instance) {
+        for (int i = 0; i < instance.capacity(); i++) {
+            instance.put(i, i);
+        }
+        instance.containsKey(-1);
+    }
+
+    private List<RecordedEvent> events(String... names) throws IOException {
+        recording.stop();
+        recording.dump(file);
+        List<String> eventNames = Arrays.asList(names);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> eventNames.contains(event.getEventType().getName()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,77 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoadPolicyTest {
+
+    @Nested
+    class CreatingLoadPolicy {
+        @ParameterizedTest
+        @ValueSource(floats = {-0.5f, 0f, 1.01f, Float.NaN, Float.POSITIVE_INFINITY})
+        void illegalLoadFactor(float loadFactor) {
+            //When
+            assertThrows(IllegalArgumentException.class, () -> new LoadPolicy(loadFactor));
+        }
+
+        @Test
+        void defaultPolicy() {
+            //Then
+            assertThat(LoadPolicy.DEFAULT.getMaxLoadFactor()).isEqualTo(0.75f);
+        }
+    }
+
+    @DisplayName(value = "int desiredCapacity(int);")
+    @Nested
+    class DesiredCapacity {
+        @Test
+        void illegalExpectedSize() {
+            //When
+            assertThrows(IllegalArgumentException.class, () -> LoadPolicy.DEFAULT.desiredCapacity(-1));
+        }
+
+        @Test
+        void capacityGreaterThanMaxCapacity() {
+            //When
+            assertThrows(IllegalArgumentException.class,
+                    () -> new LoadPolicy(0.5f).desiredCapacity(Integer.MAX_VALUE / 2 + 1));
+        }
+
+        @Test
+        void success() {
+            //Then
+            assertThat(LoadPolicy.DEFAULT.desiredCapacity(0)).isEqualTo(1);
+            assertThat(LoadPolicy.DEFAULT.desiredCapacity(3)).isEqualTo(4);
+            assertThat(LoadPolicy.DEFAULT.desiredCapacity(4)).isEqualTo(6);
+            assertThat(new LoadPolicy(1.0f).desiredCapacity(17)).isEqualTo(17);
+        }
+    }
+
+    @DisplayName(value = "boolean isExceeded(int, int);")
+    @Nested
+    class IsExceeded {
+        @Test
+        void success() {
+            //Given
+            LoadPolicy instance = new LoadPolicy(0.5f);
+
+            //Then
+            assertThat(instance.isExceeded(5, 10)).isFalse();
+            assertThat(instance.isExceeded(6, 10)).isTrue();
+        }
+    }
+
+    @Test
+    void equals() {
+        EqualsVerifier.forClass(LoadPolicy.class)
+                .usingGetClass()
+                .verify();
+    }
+}
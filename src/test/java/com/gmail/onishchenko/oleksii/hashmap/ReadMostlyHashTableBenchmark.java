@@ -0,0 +1,147 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares <tt>ReadMostlyHashTable</tt> with a <tt>synchronized</tt> wrapper and
+ * a <tt>ConcurrentHashMap</tt> for read:write ratios from 100:0 to 90:10.
+ * Every write replaces the value of an existing key.
+ * <p>
+ * Run with <tt>mvn -P benchmark test-compile exec:exec -Dbenchmark=ReadMostlyHashTableBenchmark</tt>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ReadMostlyHashTableBenchmark {
+    private static final int KEYS = 1 << 16;
+
+    @Param({"0", "1", "5", "10"})
+    private int writePercent;
+
+    @Param({"readMostly", "synchronized", "concurrent"})
+    private String implementation;
+
+    private HashTable table;
+
+    @Setup
+    public void setUp() {
+        switch (implementation) {
+            case "readMostly":
+                table = new ReadMostlyHashTable(new DoubleHashingHashTable(KEYS * 2));
+                break;
+            case "synchronized":
+                table = new SynchronizedHashTable(new DoubleHashingHashTable(KEYS * 2));
+                break;
+            case "concurrent":
+                table = new ConcurrentMapHashTable();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+        for (int key = 0; key < KEYS; key++) {
+            table.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public long readOrWrite() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(KEYS);
+        if (random.nextInt(100) < writePercent) {
+            table.put(key, key);
+            return key;
+        }
+        return table.get(key);
+    }
+
+    /**
+     * Hash table guarded by its own monitor.
+     */
+    static class SynchronizedHashTable implements HashTable {
+        private final HashTable delegate;
+
+        SynchronizedHashTable(HashTable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized boolean containsKey(int key) {
+            return delegate.containsKey(key);
+        }
+
+        @Override
+        public synchronized boolean put(int key, long value) {
+            return delegate.put(key, value);
+        }
+
+        @Override
+        public synchronized long get(int key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public synchronized int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public synchronized boolean isEmpty() {
+            return delegate.isEmpty();
+        }
+
+        @Override
+        public synchronized void forEach(EntryConsumer action) {
+            delegate.forEach(action);
+        }
+    }
+
+    /**
+     * Fully concurrent hash table backed by a <tt>ConcurrentHashMap</tt>.
+     */
+    static class ConcurrentMapHashTable implements HashTable {
+        private final ConcurrentHashMap<Integer, Long> map = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean containsKey(int key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public boolean put(int key, long value) {
+            map.put(key, value);
+            return true;
+        }
+
+        @Override
+        public long get(int key) {
+            Long value = map.get(key);
+            if (value == null) {
+                throw new IllegalArgumentException("This hash table contains no mapping for the key = " + key);
+            }
+            return value;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public void forEach(EntryConsumer action) {
+            map.forEach(action::accept);
+        }
+    }
+}
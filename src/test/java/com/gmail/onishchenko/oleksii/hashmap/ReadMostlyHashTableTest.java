@@ -0,0 +1,143 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReadMostlyHashTableTest {
+
+    private ReadMostlyHashTable instance;
+
+    @BeforeEach
+    void setUp() {
+        instance = new ReadMostlyHashTable(new DoubleHashingHashTable());
+    }
+
+    @Test
+    void nullDelegate() {
+        //When
+        assertThrows(NullPointerException.class, () -> new ReadMostlyHashTable(null));
+    }
+
+    @DisplayName(value = "Single thread")
+    @Nested
+    class SingleThread {
+        @Test
+        void afterCreating() {
+            //Then
+            assertThat(instance.size()).isEqualTo(0);
+            assertThat(instance.isEmpty()).isTrue();
+            assertThat(instance.toString()).isEqualTo("DoubleHashingHashTable[]");
+        }
+
+        @Test
+        void putAndGet() {
+            //Given
+            instance.put(1, 7);
+            instance.put(2, 13);
+            instance.put(1, 10);
+
+            //Then
+            assertThat(instance.size()).isEqualTo(2);
+            assertThat(instance.containsKey(1)).isTrue();
+            assertThat(instance.containsKey(3)).isFalse();
+            assertThat(instance.get(1)).isEqualTo(10);
+        }
+
+        @Test
+        void keyNotFound() {
+            //Given
+            instance.put(1, 7);
+
+            //When
+            assertThrows(IllegalArgumentException.class, () -> instance.get(7));
+        }
+
+        @Test
+        void fullHashTable() {
+            //Given
+            instance = new ReadMostlyHashTable(new DoubleHashingHashTable(2));
+            instance.put(1, 7);
+            instance.put(2, 13);
+
+            //When
+            boolean result = instance.put(18, 777);
+
+            //Then
+            assertThat(result).isFalse();
+        }
+
+        @Test
+        void forEach() {
+            //Given
+            instance.put(1, 10);
+            instance.put(2, 20);
+            Map<Integer, Long> visited = new HashMap<>();
+
+            //When
+            instance.forEach(visited::put);
+
+            //Then
+            assertThat(visited).containsEntry(1, 10L).containsEntry(2, 20L).hasSize(2);
+        }
+    }
+
+    @DisplayName(value = "Concurrent readers and writer")
+    @Nested
+    class Concurrent {
+        @Test
+        void readersSeeOnlyWrittenValues() throws Exception {
+            //Given
+            int keys = 20_000;
+            instance = new ReadMostlyHashTable(new DoubleHashingHashTable(keys * 2));
+            AtomicBoolean writing = new AtomicBoolean(true);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<Integer>> readers = new ArrayList<>();
+
+            try {
+                //When
+                for (int i = 0; i < 3; i++) {
+                    readers.add(executor.submit(() -> {
+                        int mismatches = 0;
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        while (writing.get()) {
+                            int key = random.nextInt(keys);
+                            if (instance.containsKey(key) && instance.get(key) != key * 3L) {
+                                mismatches++;
+                            }
+                        }
+                        return mismatches;
+                    }));
+                }
+                executor.submit(() -> {
+                    for (int key = 0; key < keys; key++) {
+                        instance.put(key, key * 3L);
+                    }
+                    writing.set(false);
+                }).get();
+
+                //Then
+                for (Future<Integer> reader : readers) {
+                    assertThat(reader.get()).isEqualTo(0);
+                }
+                assertThat(instance.size()).isEqualTo(keys);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.gmail.onishchenko.oleksii.hashmap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedHashTableTest {
+
+    private ShardedHashTable instance;
+
+    @BeforeEach
+    void setUp() {
+        instance = new ShardedHashTable();
+    }
+
+    @Nested
+    class CreatingHashTable {
+        @Test
+        void defaultConstructor() {
+            //Then
+            assertThat(instance.shardCount()).isEqualTo(ShardedHashTable.DEFAULT_SHARD_COUNT);
+            assertThat(instance.capacity())
+                    .isEqualTo((long) ShardedHashTable.DEFAULT_SHARD_COUNT * DoubleHashingHashTable.DEFAULT_CAPACITY);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {-4, 0, 3, 12, ShardedHashTable.MAX_SHARD_COUNT * 2})
+        void illegalShardCount(int shardCount) {
+            //When
+            assertThrows(IllegalArgumentException.class, () -> new ShardedHashTable(shardCount));
+        }
+
+        @Test
+        void nullLoadPolicy() {
+            //When
+            assertThrows(NullPointerException.class, () -> new ShardedHashTable(4, 17, null));
+        }
+
+        @Test
+        void illegalShardCapacity() {
+            //When
+            assertThrows(IllegalArgumentException.class, () -> new ShardedHashTable(4, 0, LoadPolicy.DEFAULT));
+        }
+    }
+
+    @DisplayName(value = "Testing int size(); long longSize(); boolean isEmpty()")
+    @Nested
+    class Size {
+        @Test
+        void afterCreating() {
+            //Then
+            assertThat(instance.size()).isEqualTo(0);
+            assertThat(instance.longSize()).isEqualTo(0);
+            assertThat(instance.isEmpty()).isTrue();
+        }
+
+        @Test
+        void addElementsWithSameKey() {
+            //Given
+            instance.put(10, 111);
+            instance.put(15, 222);
+            instance.put(10, 333);
+
+            //Then
+            assertThat(instance.size()).isEqualTo(2);
+            assertThat(instance.longSize()).isEqualTo(2);
+            assertThat(instance.isEmpty()).isFalse();
+        }
+    }
+
+    @DisplayName(value = "boolean put(); long get(); boolean containsKey();")
+    @Nested
+    class PutAndGet {
+        @Test
+        void keyNotFound() {
+            //Given
+            instance.put(1, 7);
+
+            //Then
+            assertThat(instance.containsKey(7)).isFalse();
+            assertThrows(IllegalArgumentException.class, () -> instance.get(7));
+        }
+
+        @Test
+        void shardsGrowIndependently() {
+            //Given
+            instance = new ShardedHashTable(4, 2, new LoadPolicy(0.5f));
+            int count = 10_000;
+
+            //When
+            for (int i = 0; i < count; i++) {
+                assertThat(instance.put(i * 31, i)).isTrue();
+            }
+
+            //Then
+            assertThat(instance.size()).isEqualTo(count);
+            for (int i = 0; i < count; i++) {
+                assertThat(instance.get(i * 31)).isEqualTo(i);
+            }
+            for (ShardedHashTable.ShardStatistics statistics : instance.shardStatistics()) {
+                assertThat(statistics.getLoadFactor()).isLessThanOrEqualTo(0.5);
+            }
+        }
+
+        @Test
+        void singleShard() {
+            //Given
+            instance = new ShardedHashTable(1);
+
+            //When
+            for (int i = -100; i < 100; i++) {
+                instance.put(i, -i);
+            }
+
+            //Then
+            assertThat(instance.size()).isEqualTo(200);
+            assertThat(instance.get(-55)).isEqualTo(55);
+        }
+    }
+
+    @DisplayName(value = "boolean putAll(int[], long[]);")
+    @Nested
+    class PutAll {
+        @Test
+        void differentLengths() {
+            //When
+            assertThrows(IllegalArgumentException.class, () -> instance.putAll(new int[2], new long[3]));
+        }
+
+        @Test
+        void lastValueWins() {
+            //Given
+            int count = 50_000;
+            int[] keys = new int[count];
+            long[] values = new long[count];
+            Map<Integer, Long> expected = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                keys[i] = (i * 7919) % 20_000 - 10_000;
+                values[i] = i;
+                expected.put(keys[i], (long) i);
+            }
+
+            //When
+            boolean result = instance.putAll(keys, values);
+
+            //Then
+            assertThat(result).isTrue();
+            assertThat(instance.size()).isEqualTo(expected.size());
+            expected.forEach((key, value) -> assertThat(instance.get(key)).isEqualTo(value));
+        }
+    }
+
+    @DisplayName(value = "List<ShardStatistics> shardStatistics();")
+    @Nested
+    class ShardStatistics {
+        @Test
+        void reportEveryShard() {
+            //Given
+            instance = new ShardedHashTable(8);
+            for (int i = 0; i < 1000; i++) {
+                instance.put(i, i);
+            }
+
+            //When
+            List<ShardedHashTable.ShardStatistics> result = instance.shardStatistics();
+
+            //Then
+            assertThat(result).hasSize(8);
+            assertThat(result.stream().mapToInt(ShardedHashTable.ShardStatistics::getSize).sum()).isEqualTo(1000);
+            assertThat(result.stream().mapToLong(ShardedHashTable.ShardStatistics::getCapacity).sum())
+                    .isEqualTo(instance.capacity());
+            for (int i = 0; i < result.size(); i++) {
+                assertThat(result.get(i).getIndex()).isEqualTo(i);
+                assertThat(result.get(i).getSize()).isPositive();
+            }
+        }
+    }
+
+    @DisplayName(value = "void forEach(EntryConsumer); String toString();")
+    @Nested
+    class Iteration {
+        @Test
+        void visitEveryMapping() {
+            //Given
+            for (int i = 0; i < 100; i++) {
+                instance.put(i, i * 2L);
+            }
+            Map<Integer, Long> visited = new HashMap<>();
+
+            //When
+            instance.forEach(visited::put);
+
+            //Then
+            assertThat(visited).hasSize(100);
+            visited.forEach((key, value) -> assertThat(value).isEqualTo(key * 2L));
+        }
+
+        @Test
+        void emptyHashTable() {
+            //When
+            String result = instance.toString();
+
+            //Then
+            assertThat(result).isEqualTo("ShardedHashTable[]");
+        }
+    }
+}